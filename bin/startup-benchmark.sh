@@ -0,0 +1,74 @@
+#!/bin/bash
+#
+# Measures time-to-first-request and resident memory of the service, comparing
+# the regular executable jar with the AOT + class-data-sharing build.
+#
+# Build both variants first:   ./mvnw -Pcds package -DskipTests
+# The service needs its database (make db) unless APP_ARGS points elsewhere.
+#
+# Environment:
+#   RUNS      launches per variant (default 5)
+#   PORT      HTTP port (default 8080)
+#   READY_URL URL polled until the first successful response (default /products)
+#   APP_ARGS  extra Spring Boot arguments passed to both variants
+#
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+READY_URL=${READY_URL:-http://localhost:${PORT}/products}
+APP_ARGS=${APP_ARGS:-}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cd "$(dirname "$0")/.."
+THIN_JAR=$(ls target/product-service-*.jar | grep -v -- '-exec.jar$' | head -1)
+EXEC_JAR=${THIN_JAR%.jar}-exec.jar
+ARCHIVE=${THIN_JAR%.jar}.jsa
+
+for f in "$THIN_JAR" "$EXEC_JAR" "$ARCHIVE"; do
+    if [ ! -f "$f" ]; then
+        echo "Missing $f - run ./mvnw -Pcds package -DskipTests first" >&2
+        exit 1
+    fi
+done
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Launches the service once and prints "<ready ms> <rss MB>"
+measure() {
+    local start pid ready rss
+    start=$(now_ms)
+    "$JAVA" "$@" --server.port="$PORT" $APP_ARGS > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$READY_URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Service exited before becoming ready" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$ready $rss"
+}
+
+# Runs one variant RUNS times and prints its averages
+bench() {
+    local name=$1
+    shift
+    local total_ms=0 total_rss=0 result
+    for _ in $(seq "$RUNS"); do
+        result=$(measure "$@")
+        total_ms=$(( total_ms + ${result% *} ))
+        total_rss=$(( total_rss + ${result#* } ))
+    done
+    printf "%-10s time-to-first-request %6d ms   rss %5d MB\n" \
+        "$name" $(( total_ms / RUNS )) $(( total_rss / RUNS ))
+}
+
+bench "baseline" -jar "$EXEC_JAR"
+bench "aot+cds" -XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=off -Dspring.aot.enabled=true -jar "$THIN_JAR"
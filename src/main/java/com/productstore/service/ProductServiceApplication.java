@@ -2,10 +2,12 @@ package com.productstore.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProductServiceApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceApplication.class);
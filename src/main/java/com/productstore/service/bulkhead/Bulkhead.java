@@ -0,0 +1,24 @@
+package com.productstore.service.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a handler method, or every handler of a controller, to a lane. Handlers
+ * without it run in {@link Lane#INTERACTIVE} for GET and {@link Lane#WRITE} otherwise.
+ * A request that gives any of the {@link #unlessFiltered()} parameters a value is
+ * narrow enough to run where it would without the annotation.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    Lane value();
+
+    // Parameters that filter the handler's result; a non-empty one keeps the request out of this lane
+    String[] unlessFiltered() default {};
+}
@@ -0,0 +1,78 @@
+package com.productstore.service.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits each request into its handler's lane before the handler runs, and frees
+ * the slot when the request completes or hands off to asynchronous processing.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED_LANE = BulkheadInterceptor.class.getName() + ".lane";
+
+    private final Map<Lane, LaneBulkhead> lanes;
+
+    public BulkheadInterceptor(Map<Lane, LaneBulkhead> lanes) {
+        this.lanes = new EnumMap<>(lanes);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Lane lane = laneFor(request, handler);
+        lanes.get(lane).acquire();
+        request.setAttribute(ADMITTED_LANE, lane);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Lane lane = (Lane) request.getAttribute(ADMITTED_LANE);
+        if (lane != null) {
+            request.removeAttribute(ADMITTED_LANE);
+            lanes.get(lane).release();
+        }
+    }
+
+    public static Lane laneFor(HttpServletRequest request, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            Bulkhead annotation = method.getMethodAnnotation(Bulkhead.class);
+            if (annotation == null) {
+                annotation = method.getBeanType().getAnnotation(Bulkhead.class);
+            }
+            if (annotation != null && !isFiltered(request, annotation.unlessFiltered())) {
+                return annotation.value();
+            }
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+                ? Lane.INTERACTIVE
+                : Lane.WRITE;
+    }
+
+    private static boolean isFiltered(HttpServletRequest request, String[] parameters) {
+        for (String parameter : parameters) {
+            String value = request.getParameter(parameter);
+            if (value != null && !value.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
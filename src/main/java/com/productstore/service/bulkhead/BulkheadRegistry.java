@@ -0,0 +1,29 @@
+package com.productstore.service.bulkhead;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bulkhead of every lane.
+ */
+public class BulkheadRegistry {
+
+    private final Map<Lane, LaneBulkhead> lanes;
+
+    public BulkheadRegistry(Map<Lane, LaneBulkhead> lanes) {
+        this.lanes = Collections.unmodifiableMap(new EnumMap<>(lanes));
+    }
+
+    public Map<Lane, LaneBulkhead> getLanes() {
+        return lanes;
+    }
+
+    public List<LaneStats> stats() {
+        List<LaneStats> stats = new ArrayList<>(lanes.size());
+        lanes.values().forEach(lane -> stats.add(lane.stats()));
+        return stats;
+    }
+}
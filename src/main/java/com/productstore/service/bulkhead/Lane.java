@@ -0,0 +1,42 @@
+package com.productstore.service.bulkhead;
+
+/**
+ * Execution lanes with separate concurrency limits. The defaults keep writes and
+ * bulk work below the connection pool size, so lookups always find a connection.
+ */
+public enum Lane {
+
+    // Single-product and filtered reads with tight latency targets
+    INTERACTIVE(64, 128, 1_000),
+    // Creates, updates, deletes and stock changes
+    WRITE(6, 64, 2_000),
+    // Full listings, scans and imports
+    BULK(2, 4, 5_000);
+
+    private final int defaultMaxConcurrent;
+    private final int defaultMaxQueued;
+    private final long defaultMaxWaitMillis;
+
+    Lane(int defaultMaxConcurrent, int defaultMaxQueued, long defaultMaxWaitMillis) {
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueued = defaultMaxQueued;
+        this.defaultMaxWaitMillis = defaultMaxWaitMillis;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    public int getDefaultMaxQueued() {
+        return defaultMaxQueued;
+    }
+
+    public long getDefaultMaxWaitMillis() {
+        return defaultMaxWaitMillis;
+    }
+
+    // Property key segment, e.g. product.bulkhead.interactive.max-concurrent
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,88 @@
+package com.productstore.service.bulkhead;
+
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.exception.ServiceOverloadedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one lane. At most {@code maxConcurrent} requests run at
+ * once and at most {@code maxQueued} wait, each for no longer than the lane's
+ * maximum wait or its own deadline. Everything beyond that is rejected right away,
+ * so a saturated lane cannot tie up the servlet container's threads either.
+ */
+public class LaneBulkhead {
+
+    private final Lane lane;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    public LaneBulkhead(Lane lane, int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        this.lane = lane;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        // Fair, so queued requests are admitted in arrival order
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public void acquire() {
+        long start = System.nanoTime();
+        if (permits.tryAcquire()) {
+            admit(0);
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw reject("queue is full");
+        }
+        try {
+            long wait = maxWaitNanos;
+            Deadline deadline = Deadline.current();
+            if (deadline != null) {
+                wait = Math.min(wait, deadline.remainingNanos());
+            }
+            if (!permits.tryAcquire(Math.max(0, wait), TimeUnit.NANOSECONDS)) {
+                throw reject("no capacity within " + TimeUnit.NANOSECONDS.toMillis(wait) + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("interrupted while queued");
+        } finally {
+            queued.decrementAndGet();
+        }
+        admit(System.nanoTime() - start);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public LaneStats stats() {
+        long count = admitted.get();
+        return new LaneStats(lane, maxConcurrent, maxConcurrent - permits.availablePermits(), queued.get(),
+                count, rejected.get(),
+                count == 0 ? 0 : totalQueueNanos.get() / 1e6 / count, maxQueueNanos.get() / 1e6);
+    }
+
+    private void admit(long queueNanos) {
+        admitted.incrementAndGet();
+        totalQueueNanos.addAndGet(queueNanos);
+        maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+    }
+
+    private ServiceOverloadedException reject(String reason) {
+        rejected.incrementAndGet();
+        return new ServiceOverloadedException("The " + lane.key() + " lane is saturated: " + reason, 1);
+    }
+}
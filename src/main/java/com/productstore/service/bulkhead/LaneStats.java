@@ -0,0 +1,60 @@
+package com.productstore.service.bulkhead;
+
+/**
+ * Point-in-time counters of one lane. Queue times cover the wait for a permit.
+ */
+public class LaneStats {
+
+    private final Lane lane;
+    private final int maxConcurrent;
+    private final int active;
+    private final int queued;
+    private final long admitted;
+    private final long rejected;
+    private final double averageQueueMillis;
+    private final double maxQueueMillis;
+
+    public LaneStats(Lane lane, int maxConcurrent, int active, int queued, long admitted, long rejected,
+                     double averageQueueMillis, double maxQueueMillis) {
+        this.lane = lane;
+        this.maxConcurrent = maxConcurrent;
+        this.active = active;
+        this.queued = queued;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.averageQueueMillis = averageQueueMillis;
+        this.maxQueueMillis = maxQueueMillis;
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getAverageQueueMillis() {
+        return averageQueueMillis;
+    }
+
+    public double getMaxQueueMillis() {
+        return maxQueueMillis;
+    }
+}
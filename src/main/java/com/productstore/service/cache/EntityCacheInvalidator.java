@@ -0,0 +1,61 @@
+package com.productstore.service.cache;
+
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the second-level product cache of this node consistent with writes made
+ * on other nodes. Hibernate already updates the local cache on commit; after each
+ * committed update or delete this publishes the product id, and every other node
+ * evicts it, so its next load goes to the database. Creations need no message,
+ * as no node can have cached a product before it existed.
+ */
+public class EntityCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheInvalidator.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final InvalidationTransport transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong received = new AtomicLong();
+
+    public EntityCacheInvalidator(EntityManagerFactory entityManagerFactory, InvalidationTransport transport) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transport = transport;
+        transport.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() != ProductChangedEvent.Type.CREATED) {
+            transport.publish(new EntityInvalidation(nodeId, Product.class.getName(), event.getProductId()));
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    private void onInvalidation(EntityInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        if (!Product.class.getName().equals(invalidation.getEntityName())) {
+            logger.debug("Ignoring invalidation for unknown entity {}", invalidation.getEntityName());
+            return;
+        }
+        received.incrementAndGet();
+        entityManagerFactory.getCache().evict(Product.class, invalidation.getId());
+    }
+}
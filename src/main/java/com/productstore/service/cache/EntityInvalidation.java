@@ -0,0 +1,32 @@
+package com.productstore.service.cache;
+
+import java.io.Serializable;
+
+/**
+ * Tells the other nodes that one cached entity changed. {@code origin} identifies
+ * the sending node, which has already updated its own cache.
+ */
+public class EntityInvalidation implements Serializable {
+
+    private final String origin;
+    private final String entityName;
+    private final Long id;
+
+    public EntityInvalidation(String origin, String entityName, Long id) {
+        this.origin = origin;
+        this.entityName = entityName;
+        this.id = id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
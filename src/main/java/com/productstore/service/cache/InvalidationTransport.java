@@ -0,0 +1,16 @@
+package com.productstore.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries entity cache invalidations between nodes. A transport delivers every
+ * published message to every subscriber on every node, including the sender's;
+ * receivers skip their own. Delivery may be asynchronous, so a read on another
+ * node right after a commit can still see the old entity for that long.
+ */
+public interface InvalidationTransport {
+
+    void publish(EntityInvalidation invalidation);
+
+    void subscribe(Consumer<EntityInvalidation> subscriber);
+}
@@ -0,0 +1,27 @@
+package com.productstore.service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory transport for a single process: delivers each message to the
+ * subscribers synchronously on the publishing thread. Used when no other
+ * transport is configured, and in tests to stand in for several nodes.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<EntityInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(EntityInvalidation invalidation) {
+        for (Consumer<EntityInvalidation> subscriber : subscribers) {
+            subscriber.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<EntityInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,45 @@
+package com.productstore.service.catalog;
+
+import com.productstore.service.model.Product;
+
+/**
+ * Filter for a columnar catalog scan. Every criterion is optional; a
+ * {@code null} category or availability matches all rows.
+ */
+public class CatalogQuery {
+
+    private final Product.Category category;
+    private final Boolean available;
+    private final long minPriceCents;
+    private final long maxPriceCents;
+    private final int limit;
+
+    public CatalogQuery(Product.Category category, Boolean available,
+                        long minPriceCents, long maxPriceCents, int limit) {
+        this.category = category;
+        this.available = available;
+        this.minPriceCents = minPriceCents;
+        this.maxPriceCents = maxPriceCents;
+        this.limit = limit;
+    }
+
+    public Product.Category getCategory() {
+        return category;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public long getMinPriceCents() {
+        return minPriceCents;
+    }
+
+    public long getMaxPriceCents() {
+        return maxPriceCents;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,45 @@
+package com.productstore.service.catalog;
+
+import com.productstore.service.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * A single row read back from the columnar catalog.
+ */
+public class CatalogRow {
+
+    private final long id;
+    private final String name;
+    private final BigDecimal price;
+    private final Product.Category category;
+    private final boolean available;
+
+    public CatalogRow(long id, String name, BigDecimal price, Product.Category category, boolean available) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.category = category;
+        this.available = available;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Product.Category getCategory() {
+        return category;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,26 @@
+package com.productstore.service.catalog;
+
+import java.util.List;
+
+/**
+ * Outcome of a columnar scan: the total number of matching rows and the first
+ * {@code limit} of them ordered by price.
+ */
+public class CatalogScanResult {
+
+    private final int total;
+    private final List<CatalogRow> rows;
+
+    public CatalogScanResult(int total, List<CatalogRow> rows) {
+        this.total = total;
+        this.rows = rows;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<CatalogRow> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,126 @@
+package com.productstore.service.catalog;
+
+import com.productstore.service.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary on-disk snapshot of the columnar catalog.
+ *
+ * <p>Layout (big-endian): magic, format version, change token, row count, then
+ * one record per row holding the catalog's columns. The token is the change
+ * sequence number the rows are current up to, so a restore only has to apply
+ * the change feed after it. Files are written to a temporary sibling and
+ * atomically renamed, so a reader never sees a partial snapshot. Reading
+ * memory-maps the file instead of streaming it through the heap.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x50534e50; // "PSNP"
+    private static final int FORMAT_VERSION = 2;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Catalog rows together with the change token they are current up to.
+     */
+    public static class Snapshot {
+
+        private final long token;
+        private final List<CatalogRow> rows;
+
+        public Snapshot(long token, List<CatalogRow> rows) {
+            this.token = token;
+            this.rows = rows;
+        }
+
+        public long getToken() {
+            return token;
+        }
+
+        public List<CatalogRow> getRows() {
+            return rows;
+        }
+    }
+
+    public static void write(Path path, Snapshot snapshot) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Collection<CatalogRow> rows = snapshot.getRows();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING),
+                1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshot.getToken());
+            out.writeInt(rows.size());
+            for (CatalogRow row : rows) {
+                writeRow(out, row);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version + ": " + path);
+            }
+            long token = buffer.getLong();
+            int count = buffer.getInt();
+            List<CatalogRow> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(readRow(buffer));
+            }
+            return new Snapshot(token, rows);
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, CatalogRow row) throws IOException {
+        out.writeLong(row.getId());
+        writeString(out, row.getName());
+        out.writeLong(ColumnarCatalog.toCents(row.getPrice()));
+        out.writeShort(row.getCategory().getCode());
+        out.writeBoolean(row.isAvailable());
+    }
+
+    private static CatalogRow readRow(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        String name = readString(buffer);
+        BigDecimal price = BigDecimal.valueOf(buffer.getLong(), 2);
+        Product.Category category = Product.Category.fromCode(buffer.getShort());
+        boolean available = buffer.get() != 0;
+        return new CatalogRow(id, name, price, category, available);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
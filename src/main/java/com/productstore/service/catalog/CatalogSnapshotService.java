@@ -0,0 +1,73 @@
+package com.productstore.service.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Periodically persists the in-memory {@link ColumnarCatalog} to a local
+ * {@link CatalogSnapshotFile}, so a restarting pod loads the snapshot and reads
+ * only the change feed after its token instead of the full table.
+ *
+ * <p>Enabled by setting {@code product.snapshot.path}.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.path")
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ObjectProvider<ColumnarCatalog> catalog;
+    private final Path path;
+
+    @Autowired
+    public CatalogSnapshotService(ObjectProvider<ColumnarCatalog> catalog,
+                                  @Value("${product.snapshot.path}") String path) {
+        this.catalog = catalog;
+        this.path = Paths.get(path);
+    }
+
+    // The last snapshot written, or null without a usable one
+    public CatalogSnapshotFile.Snapshot read() {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return CatalogSnapshotFile.read(path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable catalog snapshot {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.snapshot.interval:PT5M}",
+            fixedDelayString = "${product.snapshot.interval:PT5M}")
+    public void writeSnapshot() {
+        ColumnarCatalog current = catalog.getIfAvailable();
+        if (current == null || !current.isLoaded()) {
+            return;
+        }
+        CatalogSnapshotFile.Snapshot snapshot = current.snapshot();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            CatalogSnapshotFile.write(path, snapshot);
+            logger.info("Wrote catalog snapshot of {} products at change {} to {}",
+                    snapshot.getRows().size(), snapshot.getToken(), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog snapshot " + path, e);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.productstore.service.catalog;
+
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.exception.ChangeTokenExpiredException;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.sync.ChangeFeed;
+import com.productstore.service.sync.ChangeSequence;
+import com.productstore.service.sync.ProductChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-optimized, column-oriented copy of the products table for analytical scans.
+ *
+ * <p>Each attribute lives in its own primitive array (ids, price in cents, category
+ * ordinal, name reference) and availability in a bitset, so a filter touches only
+ * the columns it needs and the scan loop never allocates. Scans over large tables
+ * are split across the common fork/join pool.
+ *
+ * <p>The copy is loaded once at startup, from a snapshot when one exists, and then
+ * kept current in two ways: {@link ProductChangedEvent}s apply this node's writes
+ * right away, and a periodic catch-up reads the {@link ChangeFeed} after the
+ * catalog's token, which brings in writes made on other nodes and repairs any
+ * event applied out of order. The token is what a snapshot records.
+ */
+@Component
+@ConditionalOnProperty(name = "product.catalog.columnar.enabled", havingValue = "true")
+public class ColumnarCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarCatalog.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Rows per fork/join leaf; smaller tables are scanned on the calling thread
+    static final int SCAN_LEAF_SIZE = 16_384;
+    private static final Product.Category[] CATEGORIES = Product.Category.values();
+    private static final int CATCH_UP_PAGE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ChangeFeed changeFeed;
+    private final ChangeSequence changeSequence;
+    private final ObjectProvider<CatalogSnapshotService> snapshotService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final StringPool names = new StringPool();
+    private final BitSet available = new BitSet();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private byte[] categories = new byte[INITIAL_CAPACITY];
+    private int[] nameRefs = new int[INITIAL_CAPACITY];
+    private int size;
+    // Every change up to this sequence number is applied; negative until loaded. Guarded by the write lock
+    private volatile long token = -1;
+
+    @Autowired
+    public ColumnarCatalog(ProductRepository productRepository,
+                           ChangeFeed changeFeed,
+                           ChangeSequence changeSequence,
+                           ObjectProvider<CatalogSnapshotService> snapshotService) {
+        this.productRepository = productRepository;
+        this.changeFeed = changeFeed;
+        this.changeSequence = changeSequence;
+        this.snapshotService = snapshotService;
+    }
+
+    // Prefer the on-disk snapshot plus catch-up over a full table load
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        long start = System.nanoTime();
+        CatalogSnapshotService snapshots = snapshotService.getIfAvailable();
+        CatalogSnapshotFile.Snapshot snapshot = snapshots != null ? snapshots.read() : null;
+        if (snapshot != null) {
+            restore(snapshot);
+        } else {
+            reload();
+        }
+        int applied = catchUp();
+        logger.info("Columnar catalog loaded {} products ({} changes after {}) in {} ms",
+                size(), applied, snapshot != null ? "the snapshot" : "the full load",
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the change feed after the catalog's token and returns the number of
+     * changes applied. Falls back to a full load when the token is older than the
+     * retained deletions.
+     */
+    @Scheduled(initialDelayString = "${product.catalog.columnar.catch-up-interval:PT30S}",
+            fixedDelayString = "${product.catalog.columnar.catch-up-interval:PT30S}")
+    public int catchUp() {
+        if (!isLoaded()) {
+            return 0;
+        }
+        int applied = 0;
+        try {
+            ProductChanges changes;
+            do {
+                changes = changeFeed.changesSince(token, CATCH_UP_PAGE);
+                apply(changes);
+                applied += changes.getProducts().size() + changes.getDeletedIds().size();
+            } while (changes.isHasMore());
+        } catch (ChangeTokenExpiredException e) {
+            logger.warn("Columnar catalog fell behind the retained deletions at change {}; reloading", token);
+            reload();
+        }
+        return applied;
+    }
+
+    public boolean isLoaded() {
+        return token >= 0;
+    }
+
+    // The rows and the token they are current up to, taken together
+    public CatalogSnapshotFile.Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            List<CatalogRow> rows = new ArrayList<>(size);
+            for (int row = 0; row < size; row++) {
+                rows.add(toRow(row));
+            }
+            return new CatalogSnapshotFile.Snapshot(token, rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replace the catalog with the rows of a snapshot
+    public void restore(CatalogSnapshotFile.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            clear(snapshot.getRows().size());
+            for (CatalogRow row : snapshot.getRows()) {
+                int index = size++;
+                rowById.put(row.getId(), index);
+                write(index, row.getId(), row.getName(), toCents(row.getPrice()), row.getCategory(),
+                        row.isAvailable());
+            }
+            token = snapshot.getToken();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Full table load. The watermark is read first, so writes racing with the load are applied again
+    private void reload() {
+        long watermark = changeSequence.watermark();
+        List<Product> products = productRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            load(products);
+            token = watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductChanges changes) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : changes.getProducts()) {
+                upsert(product);
+            }
+            for (Long id : changes.getDeletedIds()) {
+                remove(id);
+            }
+            token = Math.max(token, changes.getToken());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            upsert(event.getCurrent());
+        }
+    }
+
+    // Replace the whole catalog with the given products
+    public void load(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            clear(products.size());
+            for (Product product : products) {
+                append(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Insert a product or overwrite the row that already holds it
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(product.getId());
+            if (row == null) {
+                ensureCapacity(size + 1);
+                append(product);
+            } else {
+                names.release(nameRefs[row]);
+                write(row, product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a product, moving the last row into the freed slot
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(id);
+            if (row == null) {
+                return;
+            }
+            names.release(nameRefs[row]);
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                priceCents[row] = priceCents[last];
+                categories[row] = categories[last];
+                nameRefs[row] = nameRefs[last];
+                available.set(row, available.get(last));
+                rowById.put(ids[row], row);
+            }
+            available.clear(last);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the rows matching the query ordered by price, then id. Only the first
+     * {@code limit} rows are selected, sorted and materialized; the total count
+     * covers every match.
+     */
+    public CatalogScanResult scan(CatalogQuery query) {
+        lock.readLock().lock();
+        try {
+            int[] matches = new int[size];
+            ScanTask task = new ScanTask(query, matches, 0, size);
+            int total = size > SCAN_LEAF_SIZE ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+            int count = Math.min(total, query.getLimit());
+            selectFirst(matches, total, count);
+            sortByPrice(matches, 0, count - 1);
+
+            List<CatalogRow> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(toRow(matches[i]));
+            }
+            return new CatalogScanResult(total, rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private CatalogRow toRow(int row) {
+        return new CatalogRow(ids[row], names.get(nameRefs[row]), BigDecimal.valueOf(priceCents[row], 2),
+                CATEGORIES[categories[row]], available.get(row));
+    }
+
+    private void append(Product product) {
+        int row = size++;
+        rowById.put(product.getId(), row);
+        write(row, product);
+    }
+
+    private void write(int row, Product product) {
+        write(row, product.getId(), product.getName(), toCents(product.getPrice()), product.getCategory(),
+                Boolean.TRUE.equals(product.getAvailable()));
+    }
+
+    private void write(int row, long id, String name, long cents, Product.Category category, boolean isAvailable) {
+        ids[row] = id;
+        priceCents[row] = cents;
+        categories[row] = (byte) category.ordinal();
+        nameRefs[row] = names.acquire(name);
+        available.set(row, isAvailable);
+    }
+
+    private void clear(int capacity) {
+        rowById.clear();
+        names.clear();
+        available.clear();
+        size = 0;
+        ensureCapacity(capacity);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        nameRefs = Arrays.copyOf(nameRefs, capacity);
+    }
+
+    // Row comparison used by the sort: price first, id as tie-breaker
+    private int compareRows(int a, int b) {
+        int byPrice = Long.compare(priceCents[a], priceCents[b]);
+        return byPrice != 0 ? byPrice : Long.compare(ids[a], ids[b]);
+    }
+
+    /**
+     * Moves the {@code k} lowest of the first {@code total} rows to the front, in no
+     * particular order. The front is kept as a max-heap, so each remaining row costs
+     * one comparison with the worst row kept, and O(log k) only when it displaces it.
+     */
+    private void selectFirst(int[] rows, int total, int k) {
+        if (k <= 0 || k >= total) {
+            return;
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(rows, i, k);
+        }
+        for (int i = k; i < total; i++) {
+            if (compareRows(rows[i], rows[0]) < 0) {
+                rows[0] = rows[i];
+                siftDown(rows, 0, k);
+            }
+        }
+    }
+
+    private void siftDown(int[] heap, int index, int size) {
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compareRows(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compareRows(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    // In-place quicksort of row indexes, avoiding boxed comparators
+    private void sortByPrice(int[] rows, int low, int high) {
+        while (high - low > 16) {
+            int pivot = rows[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compareRows(rows[i], pivot) < 0) {
+                    i++;
+                }
+                while (compareRows(rows[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = rows[i];
+                    rows[i++] = rows[j];
+                    rows[j--] = tmp;
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sortByPrice(rows, low, j);
+                low = i;
+            } else {
+                sortByPrice(rows, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= low && compareRows(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    /**
+     * Filters a range of rows into the same range of the shared output array and
+     * returns the match count. After joining, the right half's matches are shifted
+     * down behind the left half's so the array stays dense from {@code from}.
+     */
+    private final class ScanTask extends RecursiveTask<Integer> {
+
+        private final CatalogQuery query;
+        private final int[] out;
+        private final int from;
+        private final int to;
+
+        ScanTask(CatalogQuery query, int[] out, int from, int to) {
+            this.query = query;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= SCAN_LEAF_SIZE) {
+                return scanRange();
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(query, out, from, mid);
+            left.fork();
+            int rightCount = new ScanTask(query, out, mid, to).compute();
+            int leftCount = left.join();
+            System.arraycopy(out, mid, out, from + leftCount, rightCount);
+            return leftCount + rightCount;
+        }
+
+        private int scanRange() {
+            int category = query.getCategory() == null ? -1 : query.getCategory().ordinal();
+            int availability = query.getAvailable() == null ? -1 : (query.getAvailable() ? 1 : 0);
+            long min = query.getMinPriceCents();
+            long max = query.getMaxPriceCents();
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                long price = priceCents[row];
+                if (price < min || price > max) {
+                    continue;
+                }
+                if (category >= 0 && categories[row] != category) {
+                    continue;
+                }
+                if (availability >= 0 && available.get(row) != (availability == 1)) {
+                    continue;
+                }
+                out[from + count++] = row;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.productstore.service.catalog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reference-counted string pool. Equal strings share one slot, so a column of
+ * repeated names costs one int per row instead of one String reference per row.
+ * Not thread-safe; callers guard it with their own lock.
+ */
+class StringPool {
+
+    private final Map<String, Integer> slotByValue = new HashMap<>();
+    private String[] values = new String[64];
+    private int[] refCounts = new int[64];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int used;
+
+    int acquire(String value) {
+        Integer slot = slotByValue.get(value);
+        if (slot != null) {
+            refCounts[slot]++;
+            return slot;
+        }
+        int newSlot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        values[newSlot] = value;
+        refCounts[newSlot] = 1;
+        slotByValue.put(value, newSlot);
+        return newSlot;
+    }
+
+    void release(int slot) {
+        if (--refCounts[slot] == 0) {
+            slotByValue.remove(values[slot]);
+            values[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    String get(int slot) {
+        return values[slot];
+    }
+
+    int distinctCount() {
+        return slotByValue.size();
+    }
+
+    void clear() {
+        slotByValue.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(refCounts, 0);
+        freeCount = 0;
+        used = 0;
+    }
+
+    private int nextSlot() {
+        if (used == values.length) {
+            values = Arrays.copyOf(values, used * 2);
+            refCounts = Arrays.copyOf(refCounts, used * 2);
+        }
+        return used++;
+    }
+}
@@ -0,0 +1,76 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.exception.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the admin operations, the POST endpoints under /admin that export
+ * flight recordings or move rows between shards. They answer 404 unless
+ * {@code product.admin.operations.enabled} is set, and then only to requests
+ * carrying the configured token as {@code Authorization: Bearer <token>}. The
+ * read-only statistics under /admin are not affected.
+ */
+public class AdminAccessFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final boolean enabled;
+    private final byte[] token;
+    private final ObjectMapper objectMapper;
+
+    public AdminAccessFilter(boolean enabled, String token, ObjectMapper objectMapper) {
+        if (enabled && token.isBlank()) {
+            throw new IllegalStateException("product.admin.token is required when admin operations are enabled");
+        }
+        this.enabled = enabled;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            sendError(response, HttpStatus.NOT_FOUND, "Not found");
+            return;
+        }
+        if (!authorized(request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            sendError(response, HttpStatus.UNAUTHORIZED, "A valid admin token is required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Compared in constant time, so the token cannot be guessed byte by byte from response times
+    private boolean authorized(String header) {
+        if (header == null || !header.startsWith(BEARER)) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, header.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sendError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new GlobalExceptionHandler.ErrorResponse(status.value(), status.getReasonPhrase(), message));
+    }
+}
@@ -0,0 +1,23 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdminConfig {
+
+    // Off by default: admin operations are reachable only once enabled and given a token
+    @Bean
+    public FilterRegistrationBean<AdminAccessFilter> adminAccessFilter(
+            @Value("${product.admin.operations.enabled:false}") boolean enabled,
+            @Value("${product.admin.token:}") String token,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdminAccessFilter> registration =
+                new FilterRegistrationBean<>(new AdminAccessFilter(enabled, token, objectMapper));
+        registration.addUrlPatterns("/admin/*");
+        return registration;
+    }
+}
@@ -0,0 +1,46 @@
+package com.productstore.service.config;
+
+import com.productstore.service.bulkhead.BulkheadInterceptor;
+import com.productstore.service.bulkhead.BulkheadRegistry;
+import com.productstore.service.bulkhead.Lane;
+import com.productstore.service.bulkhead.LaneBulkhead;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadConfig(Environment environment) {
+        Map<Lane, LaneBulkhead> lanes = new EnumMap<>(Lane.class);
+        for (Lane lane : Lane.values()) {
+            String prefix = "product.bulkhead." + lane.key() + ".";
+            lanes.put(lane, new LaneBulkhead(lane,
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, lane.getDefaultMaxConcurrent()),
+                    environment.getProperty(prefix + "max-queued", Integer.class, lane.getDefaultMaxQueued()),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, lane.getDefaultMaxWaitMillis())));
+        }
+        this.registry = new BulkheadRegistry(lanes);
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return registry;
+    }
+
+    // Runs after the deadline interceptor, so time spent queued counts against the request's deadline,
+    // and after load shedding, so requests that will be rejected anyway never take a queue slot
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(this.registry.getLanes()))
+                .addPathPatterns("/products", "/products/**")
+                .order(WebConfig.DEADLINE_INTERCEPTOR_ORDER + 2);
+    }
+}
@@ -0,0 +1,18 @@
+package com.productstore.service.config;
+
+import com.productstore.service.diagnostics.FlightRecorderInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class DiagnosticsConfig implements WebMvcConfigurer {
+
+    // First of all, so the recorded duration includes load shedding and bulkhead queueing
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FlightRecorderInterceptor())
+                .addPathPatterns("/products", "/products/**")
+                .order(WebConfig.DEADLINE_INTERCEPTOR_ORDER - 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.productstore.service.config;
+
+import com.productstore.service.cache.EntityCacheInvalidator;
+import com.productstore.service.cache.InvalidationTransport;
+import com.productstore.service.cache.LocalInvalidationTransport;
+import com.productstore.service.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Second-level entity cache for {@link Product}: JCache regions backed by an
+ * on-heap Ehcache, read-write so concurrent transactions never see uncommitted
+ * state. The entity cache serves loads by id from the EntityManager, including
+ * the lookups inside update and delete and multi-gets. Other nodes learn of
+ * changes through the {@link InvalidationTransport}; define another transport
+ * bean to replace the in-process one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.entity-cache.enabled", havingValue = "true")
+public class EntityCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${product.entity-cache.max-entries:50000}") long maxEntries,
+                                           @Value("${product.entity-cache.ttl:PT10M}") Duration ttl) {
+        // Its own manager rather than the provider's shared default, so each context gets a fresh one
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        // The expiry bounds how long a lost invalidation can leave a stale entry behind
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Product.CACHE_REGION, CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                                Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl)))
+                .build();
+        return provider.getCacheManager(URI.create("urn:product-entity-cache:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InvalidationTransport invalidationTransport() {
+        return new LocalInvalidationTransport();
+    }
+
+    @Bean
+    public EntityCacheInvalidator entityCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                                         InvalidationTransport invalidationTransport) {
+        return new EntityCacheInvalidator(entityManagerFactory, invalidationTransport);
+    }
+}
@@ -0,0 +1,50 @@
+package com.productstore.service.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites local {@code src} and {@code href} links in HTML pages to the URLs the
+ * resource chain publishes, so pages reference content-hash versioned assets.
+ * The HTML counterpart of Spring's {@code CssLinkResourceTransformer}.
+ */
+public class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern LINK = Pattern.compile("(\\s(?:src|href)=\")([^\"]+)(\")");
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource,
+                              ResourceTransformerChain transformerChain) throws IOException {
+        resource = transformerChain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+
+        String content = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+        Matcher matcher = LINK.matcher(content);
+        StringBuilder result = new StringBuilder(content.length());
+        while (matcher.find()) {
+            String link = matcher.group(2);
+            String resolved = isLocal(link) ? resolveUrlPath(link, request, resource, transformerChain) : null;
+            matcher.appendReplacement(result, Matcher.quoteReplacement(
+                    matcher.group(1) + (resolved != null ? resolved : link) + matcher.group(3)));
+        }
+        matcher.appendTail(result);
+        return new TransformedResource(resource, result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean isLocal(String link) {
+        return !link.contains("://") && !link.startsWith("//") && !link.startsWith("#")
+                && !link.startsWith("data:") && !link.startsWith("mailto:");
+    }
+}
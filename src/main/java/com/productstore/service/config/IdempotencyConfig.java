@@ -0,0 +1,45 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.idempotency.IdempotencyFilter;
+import com.productstore.service.idempotency.IdempotencyStore;
+import com.productstore.service.idempotency.InMemoryIdempotencyStore;
+import com.productstore.service.limit.ClientIdentity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "product.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    // In-memory default; declare another IdempotencyStore bean to share keys between instances
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyStore idempotencyStore(@Value("${product.idempotency.max-entries:100000}") int maxEntries,
+                                             @Value("${product.idempotency.ttl:PT24H}") Duration ttl) {
+        return new InMemoryIdempotencyStore(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    // Keys are scoped by the same client identity the rate limiter uses
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            ObjectMapper objectMapper,
+            @Value("${product.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+            @Value("${product.ratelimit.client-header:}") String clientHeader,
+            @Value("${product.idempotency.max-body-size:1MB}") DataSize maxBodySize) {
+        IdempotencyFilter filter = new IdempotencyFilter(store, objectMapper, waitTimeout,
+                new ClientIdentity(clientHeader), Math.toIntExact(maxBodySize.toBytes()));
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/products", "/products/*");
+        return registration;
+    }
+}
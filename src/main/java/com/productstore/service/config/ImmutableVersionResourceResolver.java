@@ -0,0 +1,123 @@
+package com.productstore.service.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Content-hash {@link VersionResourceResolver} that marks only resources looked
+ * up by their fingerprinted URL as immutable. The plain URL of the same file is
+ * still served, with the handler's own cache control, so a bookmarked or
+ * unrewritten link is revalidated instead of being pinned in caches for a year.
+ */
+public class ImmutableVersionResourceResolver extends VersionResourceResolver {
+
+    private final CacheControl cacheControl;
+
+    public ImmutableVersionResourceResolver(CacheControl cacheControl) {
+        this.cacheControl = cacheControl;
+        addContentVersionStrategy("/**");
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource plain = chain.resolveResource(request, requestPath, locations);
+        if (plain != null) {
+            return plain;
+        }
+        Resource versioned = super.resolveResourceInternal(request, requestPath, locations, chain);
+        return versioned != null ? new ImmutableResource(versioned, cacheControl) : null;
+    }
+
+    // Delegates to the resolved resource and adds the Cache-Control header to its own headers
+    private static final class ImmutableResource extends AbstractResource implements HttpResource {
+
+        private final Resource resource;
+        private final CacheControl cacheControl;
+
+        ImmutableResource(Resource resource, CacheControl cacheControl) {
+            this.resource = resource;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return resource.isReadable();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return resource.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return resource.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return resource.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return resource.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (resource instanceof HttpResource httpResource) {
+                headers.putAll(httpResource.getResponseHeaders());
+            }
+            headers.setCacheControl(cacheControl);
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.json.CachedProductJsonConverter;
+import com.productstore.service.json.ProductJsonCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "product.json-cache.enabled", havingValue = "true")
+public class JsonCacheConfig implements WebMvcConfigurer {
+
+    private final ProductJsonCache cache;
+
+    public JsonCacheConfig(ObjectMapper objectMapper,
+                           @Value("${product.json-cache.max-entries:50000}") int maxEntries) {
+        this.cache = new ProductJsonCache(objectMapper, maxEntries);
+    }
+
+    // A bean, so it receives the change events that invalidate it
+    @Bean
+    public ProductJsonCache productJsonCache() {
+        return cache;
+    }
+
+    // Ahead of the Jackson converter, which still handles everything else
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new CachedProductJsonConverter(cache));
+    }
+}
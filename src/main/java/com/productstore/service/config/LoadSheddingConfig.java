@@ -0,0 +1,56 @@
+package com.productstore.service.config;
+
+import com.productstore.service.limit.AdaptiveLimiter;
+import com.productstore.service.limit.ClientIdentity;
+import com.productstore.service.limit.ClientRateLimiter;
+import com.productstore.service.limit.LoadSheddingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private final AdaptiveLimiter limiter;
+    private final ClientRateLimiter rateLimiter;
+    private final String clientHeader;
+    private final boolean enabled;
+
+    public LoadSheddingConfig(@Value("${product.limit.enabled:true}") boolean enabled,
+                              @Value("${product.limit.initial:20}") int initialLimit,
+                              @Value("${product.limit.min:4}") int minLimit,
+                              @Value("${product.limit.max:200}") int maxLimit,
+                              @Value("${product.limit.backoff-ratio:0.9}") double backoffRatio,
+                              @Value("${product.limit.tolerance:2.0}") double tolerance,
+                              @Value("${product.ratelimit.requests-per-second:0}") double ratePerSecond,
+                              @Value("${product.ratelimit.burst:20}") double burst,
+                              @Value("${product.ratelimit.max-clients:10000}") int maxClients,
+                              @Value("${product.ratelimit.client-header:}") String clientHeader) {
+        this.enabled = enabled;
+        this.limiter = new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance);
+        this.rateLimiter = new ClientRateLimiter(ratePerSecond, burst, maxClients);
+        this.clientHeader = clientHeader;
+    }
+
+    @Bean
+    public AdaptiveLimiter adaptiveLimiter() {
+        return limiter;
+    }
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter() {
+        return rateLimiter;
+    }
+
+    // Between the deadline interceptor and the bulkheads
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new LoadSheddingInterceptor(limiter, rateLimiter, new ClientIdentity(clientHeader)))
+                    .addPathPatterns("/products", "/products/**")
+                    .order(WebConfig.DEADLINE_INTERCEPTOR_ORDER + 1);
+        }
+    }
+}
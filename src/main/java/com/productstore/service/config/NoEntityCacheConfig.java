@@ -0,0 +1,23 @@
+package com.productstore.service.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the second-level cache off unless {@link EntityCacheConfig} is enabled.
+ * Hibernate turns it on by itself whenever a cache provider is on the classpath,
+ * and would then keep entities in the JCache provider's default manager, which is
+ * shared by every application context in the JVM.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.entity-cache.enabled", havingValue = "false", matchIfMissing = true)
+public class NoEntityCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer noEntityCacheProperties() {
+        return properties -> properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+    }
+}
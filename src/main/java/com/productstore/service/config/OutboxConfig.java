@@ -0,0 +1,67 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.outbox.FileOutboxSink;
+import com.productstore.service.outbox.InMemoryOutboxSink;
+import com.productstore.service.outbox.OutboxRelay;
+import com.productstore.service.outbox.OutboxSink;
+import com.productstore.service.outbox.OutboxWriter;
+import com.productstore.service.repository.OutboxEventRepository;
+import com.productstore.service.repository.OutboxRelayLeaseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Transactional outbox for product changes: the {@link OutboxWriter} adds each
+ * change to the product_outbox table within the write, and the {@link OutboxRelay}
+ * publishes it to the configured {@link OutboxSink}. Define another sink bean to
+ * publish elsewhere, for example to a message broker.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxSink outboxSink(@Value("${product.outbox.sink:memory}") String sink,
+                                 @Value("${product.outbox.file.path:}") String path,
+                                 ObjectMapper objectMapper) throws IOException {
+        return switch (sink) {
+            case "memory" -> new InMemoryOutboxSink();
+            case "file" -> {
+                if (path.isEmpty()) {
+                    throw new IllegalStateException("product.outbox.file.path is required for the file sink");
+                }
+                yield new FileOutboxSink(Path.of(path), objectMapper);
+            }
+            default -> throw new IllegalStateException("Unknown product.outbox.sink " + sink);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxEventRepository repository, OutboxRelayLeaseRepository leaseRepository,
+                                   OutboxSink outboxSink,
+                                   @Value("${product.outbox.batch-size:500}") int batchSize,
+                                   @Value("${product.outbox.poll-interval:PT1S}") Duration pollInterval,
+                                   @Value("${product.outbox.relay.lease-time:PT30S}") Duration leaseTime) {
+        return new OutboxRelay(repository, leaseRepository, outboxSink, batchSize, pollInterval, leaseTime);
+    }
+
+    @Bean
+    public OutboxWriter outboxWriter(EntityManagerFactory entityManagerFactory, OutboxEventRepository repository,
+                                     ObjectMapper objectMapper, ObjectProvider<OutboxRelay> outboxRelay) {
+        return new OutboxWriter(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                repository, objectMapper, outboxRelay.getIfAvailable());
+    }
+}
@@ -0,0 +1,187 @@
+package com.productstore.service.config;
+
+import com.productstore.service.deadline.DeadlineAwareDataSource;
+import com.productstore.service.shard.HashRing;
+import com.productstore.service.shard.ProductIdAllocator;
+import com.productstore.service.shard.ProductIdGenerator;
+import com.productstore.service.shard.ShardContext;
+import com.productstore.service.shard.ShardRebalancer;
+import com.productstore.service.shard.ShardRouter;
+import com.productstore.service.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Products sharded over the databases in {@code product.sharding.urls}, named
+ * shard0, shard1 and so on. JPA gets a routing data source that follows the
+ * shard bound to the thread; shard0 is the default and keeps all other tables.
+ *
+ * <p>Features that read products from one database would only see shard0, so
+ * enabling one of them together with sharding fails startup. The stock ledger and
+ * the change feed are not created at all while sharding is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    private static final Set<String> SCHEMA_CREATING_MODES = Set.of("create", "create-drop", "update");
+
+    // Switches of features that read or write products on shard0 only
+    private static final List<String> UNSHARDED_FEATURES = List.of(
+            "product.write.group-commit.enabled",
+            "product.catalog.columnar.enabled",
+            "product.outbox.enabled");
+
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+    private final ShardRouter router;
+    private final ProductIdAllocator idAllocator;
+
+    public ShardingConfig(Environment environment,
+                          @Value("${product.sharding.urls}") List<String> urls,
+                          @Value("${product.sharding.username:}") String username,
+                          @Value("${product.sharding.password:}") String password,
+                          @Value("${product.sharding.pool-size:10}") int poolSize,
+                          @Value("${product.sharding.virtual-nodes:128}") int virtualNodes,
+                          @Value("${product.sharding.id-block-size:1000}") int idBlockSize) {
+        checkUnshardedFeatures(environment);
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("shard" + i);
+            dataSource.setMaximumPoolSize(poolSize);
+            shards.put("shard" + i, new DeadlineAwareDataSource(dataSource));
+        }
+        this.router = new ShardRouter(HashRing.of(new ArrayList<>(shards.keySet()), virtualNodes), shards);
+        this.idAllocator = new ProductIdAllocator(shards.get("shard0"), idBlockSize);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(new HashMap<>(shards));
+        routing.setDefaultTargetDataSource(shards.get("shard0"));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardRouter shardRouter() {
+        return router;
+    }
+
+    @Bean
+    public ProductIdAllocator productIdAllocator() {
+        return idAllocator;
+    }
+
+    // Switches the product id generator from identity columns to allocated ids
+    @Bean
+    public HibernatePropertiesCustomizer shardingProperties() {
+        return properties -> properties.put(ProductIdGenerator.ALLOCATOR_SETTING, idAllocator);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(@Value("${product.sharding.rebalance-batch-size:500}") int batchSize) {
+        return new ShardRebalancer(router, batchSize);
+    }
+
+    /**
+     * Before serving requests: gives the other shards the tables that ddl-auto
+     * created on shard0, starts allocated ids above every id in use, and moves
+     * products whose shard changed because a shard was added.
+     */
+    @Bean
+    public SmartInitializingSingleton shardStartup(EntityManagerFactory entityManagerFactory,
+                                                   ShardRebalancer rebalancer,
+                                                   @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto,
+                                                   @Value("${product.sharding.rebalance-on-start:true}") boolean rebalance) {
+        return () -> {
+            try {
+                if (SCHEMA_CREATING_MODES.contains(ddlAuto)) {
+                    for (String shard : router.getShards()) {
+                        if (!hasProductsTable(router.dataSource(shard))) {
+                            logger.info("Creating tables on {}", shard);
+                            ShardContext.call(shard, () -> {
+                                entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager()
+                                        .exportMappedObjects(true);
+                                return null;
+                            });
+                        }
+                    }
+                }
+                long maxId = 0;
+                for (String shard : router.getShards()) {
+                    Long shardMax = new JdbcTemplate(router.dataSource(shard))
+                            .queryForObject("select coalesce(max(id), 0) from products", Long.class);
+                    maxId = Math.max(maxId, shardMax != null ? shardMax : 0);
+                }
+                idAllocator.initialize(maxId);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not initialize shards", e);
+            }
+            if (rebalance) {
+                rebalancer.rebalance();
+            }
+        };
+    }
+
+    private static void checkUnshardedFeatures(Environment environment) {
+        List<String> enabled = new ArrayList<>();
+        for (String feature : UNSHARDED_FEATURES) {
+            if (environment.getProperty(feature, Boolean.class, false)) {
+                enabled.add(feature);
+            }
+        }
+        // Snapshots are on whenever a path is set, as their own condition has it
+        String snapshotPath = environment.getProperty("product.snapshot.path", "");
+        if (!snapshotPath.isEmpty() && !"false".equalsIgnoreCase(snapshotPath)) {
+            enabled.add("product.snapshot.path");
+        }
+        if (!enabled.isEmpty()) {
+            throw new IllegalStateException("Sharding cannot be combined with " + String.join(", ", enabled));
+        }
+    }
+
+    private static boolean hasProductsTable(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (tables.next()) {
+                if ("products".equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.productstore.service.config;
+
+import com.productstore.service.deadline.DeadlineAwareDataSource;
+import com.productstore.service.deadline.DeadlineAwareTransactionManager;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+@Configuration
+public class TransactionConfig {
+
+    // Replaces Spring Boot's default JpaTransactionManager
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineAwareTransactionManager();
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    // Caps the pool wait of the application's connections at the request deadline
+    @Bean
+    public static BeanPostProcessor deadlineAwareDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource hikari ? new DeadlineAwareDataSource(hikari) : bean;
+            }
+        };
+    }
+}
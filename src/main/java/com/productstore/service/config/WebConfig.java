@@ -1,18 +1,65 @@
 package com.productstore.service.config;
 
+import com.productstore.service.deadline.DeadlineInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Fingerprinted assets never change under the same URL
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    // Interceptors that depend on the request deadline are ordered after this one
+    static final int DEADLINE_INTERCEPTOR_ORDER = 0;
+
+    private final Duration defaultDeadline;
+
+    public WebConfig(@Value("${product.deadline.default:PT5S}") Duration defaultDeadline) {
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor(defaultDeadline))
+                .addPathPatterns("/products", "/products/**")
+                .order(DEADLINE_INTERCEPTOR_ORDER);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/js/**").addResourceLocations("classpath:/static/js/");
-        registry.addResourceHandler("/css/**").addResourceLocations("classpath:/static/css/");
-        registry.addResourceHandler("/images/**").addResourceLocations("classpath:/static/images/");
+        registerAssets(registry, "/js/**", "classpath:/static/js/");
+        registerAssets(registry, "/css/**", "classpath:/static/css/");
+        registerAssets(registry, "/images/**", "classpath:/static/images/");
+
+        // Pages are revalidated on every load and link to the fingerprinted asset URLs
+        registry.addResourceHandler("/index.html", "/health.html")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+
+    // Serves content-hash versioned URLs and the precompressed .br/.gz variants built by Maven.
+    // Only fingerprinted URLs are immutable; plain asset URLs are revalidated like pages
+    private void registerAssets(ResourceHandlerRegistry registry, String pattern, String location) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new ImmutableVersionResourceResolver(IMMUTABLE));
     }
 
     @Override
@@ -20,4 +67,4 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addViewController("/").setViewName("forward:/index.html");
         registry.addViewController("/health").setViewName("forward:/health.html");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.productstore.service.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.productstore.service.json.CompactProductMixin;
+import com.productstore.service.model.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor})
+ * to callers that ask for them in Accept or send them as Content-Type. The binary
+ * converters replace Spring's defaults so they share the application's Jackson
+ * settings and add {@link CompactProductMixin}. JSON stays the default format.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public WireFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                builder().factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                builder().factory(new CBORFactory()).build()));
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return builders.getIfAvailable(Jackson2ObjectMapperBuilder::new)
+                .mixIn(Product.class, CompactProductMixin.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.bulkhead.BulkheadRegistry;
+import com.productstore.service.bulkhead.LaneStats;
+import com.productstore.service.diagnostics.ContinuousRecording;
+import com.productstore.service.limit.AdaptiveLimiter;
+import com.productstore.service.limit.ClientRateLimiter;
+import com.productstore.service.limit.LimiterStats;
+import com.productstore.service.outbox.OutboxRelay;
+import com.productstore.service.outbox.OutboxStats;
+import com.productstore.service.shard.ShardRebalancer;
+import com.productstore.service.shard.ShardStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final AdaptiveLimiter adaptiveLimiter;
+    private final ClientRateLimiter clientRateLimiter;
+    private final ObjectProvider<ContinuousRecording> continuousRecording;
+    private final ObjectProvider<ShardRebalancer> shardRebalancer;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+
+    @Autowired
+    public AdminController(BulkheadRegistry bulkheadRegistry, AdaptiveLimiter adaptiveLimiter,
+                           ClientRateLimiter clientRateLimiter,
+                           ObjectProvider<ContinuousRecording> continuousRecording,
+                           ObjectProvider<ShardRebalancer> shardRebalancer,
+                           ObjectProvider<OutboxRelay> outboxRelay) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.adaptiveLimiter = adaptiveLimiter;
+        this.clientRateLimiter = clientRateLimiter;
+        this.continuousRecording = continuousRecording;
+        this.shardRebalancer = shardRebalancer;
+        this.outboxRelay = outboxRelay;
+    }
+
+    // Occupancy, rejections and queue times of each execution lane
+    @GetMapping("/bulkheads")
+    public ResponseEntity<List<LaneStats>> getBulkheads() {
+        return ResponseEntity.ok(bulkheadRegistry.stats());
+    }
+
+    // Current adaptive concurrency limit and how many requests were shed
+    @GetMapping("/limits")
+    public ResponseEntity<LimiterStats> getLimits() {
+        return ResponseEntity.ok(adaptiveLimiter.stats(clientRateLimiter.getLimitedCount()));
+    }
+
+    // The last minutes of the continuous flight recording as a .jfr file; 404 when it is not running
+    @PostMapping("/jfr/dump")
+    public ResponseEntity<StreamingResponseBody> dumpFlightRecording(
+            @RequestParam(defaultValue = "5") int minutes) throws IOException {
+        ContinuousRecording recording = continuousRecording.getIfAvailable();
+        if (recording == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Duration window = Duration.ofMinutes(Math.max(1, minutes));
+        if (window.compareTo(recording.getMaxAge()) > 0) {
+            window = recording.getMaxAge();
+        }
+        Path file = recording.dump(window);
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+
+    // Products per shard; 404 when products are not sharded
+    @GetMapping("/shards")
+    public ResponseEntity<List<ShardStats>> getShards() {
+        ShardRebalancer rebalancer = shardRebalancer.getIfAvailable();
+        return rebalancer != null ? ResponseEntity.ok(rebalancer.stats()) : ResponseEntity.notFound().build();
+    }
+
+    // Move products to the shards that own them, after a shard was added
+    @PostMapping("/shards/rebalance")
+    public ResponseEntity<Map<String, Long>> rebalanceShards() {
+        ShardRebalancer rebalancer = shardRebalancer.getIfAvailable();
+        if (rebalancer == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("moved", rebalancer.rebalance()));
+    }
+
+    // Throughput, failures, backlog, lag and lease of the outbox relay; 404 when this node does not relay
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStats> getOutbox() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        return relay != null ? ResponseEntity.ok(relay.stats()) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.bulkhead.Bulkhead;
+import com.productstore.service.bulkhead.Lane;
+import com.productstore.service.catalog.CatalogQuery;
+import com.productstore.service.catalog.CatalogScanResult;
+import com.productstore.service.catalog.ColumnarCatalog;
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/products/scan")
+@ConditionalOnProperty(name = "product.catalog.columnar.enabled", havingValue = "true")
+public class CatalogController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ColumnarCatalog columnarCatalog;
+
+    @Autowired
+    public CatalogController(ColumnarCatalog columnarCatalog) {
+        this.columnarCatalog = columnarCatalog;
+    }
+
+    // Analytical scan over the columnar catalog, ordered by price
+    @Bulkhead(Lane.BULK)
+    @GetMapping
+    public ResponseEntity<CatalogScanResult> scan(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new DataValidationException("limit must be between 0 and " + MAX_LIMIT);
+        }
+        CatalogQuery query = new CatalogQuery(
+                parseCategory(category),
+                available,
+                minPrice == null ? Long.MIN_VALUE : ColumnarCatalog.toCents(minPrice),
+                maxPrice == null ? Long.MAX_VALUE : ColumnarCatalog.toCents(maxPrice),
+                limit);
+        return ResponseEntity.ok(columnarCatalog.scan(query));
+    }
+
+    private Product.Category parseCategory(String category) {
+        if (category == null || category.isEmpty()) {
+            return null;
+        }
+        try {
+            return Product.Category.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DataValidationException("Unknown category '" + category + "'");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.sync.ChangeFeed;
+import com.productstore.service.sync.ProductChanges;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/products/changes")
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class ProductChangesController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final ChangeFeed changeFeed;
+
+    @Autowired
+    public ProductChangesController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // Delta sync: products changed and ids deleted after the token; since=0 starts a full sync
+    @GetMapping
+    public ResponseEntity<ProductChanges> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "1000") int limit) {
+        if (since < 0) {
+            throw new DataValidationException("since must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new DataValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(changeFeed.changesSince(since, limit));
+    }
+}
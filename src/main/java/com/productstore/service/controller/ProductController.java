@@ -1,12 +1,17 @@
 package com.productstore.service.controller;
 
+import com.productstore.service.bulkhead.Bulkhead;
+import com.productstore.service.bulkhead.Lane;
 import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductLookup;
+import com.productstore.service.service.ProductQuery;
 import com.productstore.service.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import com.productstore.service.exception.DataValidationException;
 import com.productstore.service.exception.ProductNotFoundException;
 import java.net.URI;
 import java.util.List;
@@ -15,6 +20,10 @@ import java.util.List;
 @RequestMapping("/products")
 public class ProductController {
 
+    private static final int MAX_IDS_PER_LOOKUP = 1000;
+    private static final int MAX_LIMIT = 1000;
+    private static final int DEFAULT_LIMIT = 100;
+
     private final ProductService productService;
 
     @Autowired
@@ -54,7 +63,19 @@ public ResponseEntity<Void> deleteProduct(@PathVariable Long productId) {
     return ResponseEntity.noContent().build();
 }
 
-@GetMapping
+// Multi-get: GET /products?ids=1,2,3 resolves all ids with a single round trip
+@GetMapping(params = "ids")
+public ResponseEntity<ProductLookup> getProducts(@RequestParam List<Long> ids) {
+    if (ids.size() > MAX_IDS_PER_LOOKUP) {
+        throw new DataValidationException("At most " + MAX_IDS_PER_LOOKUP + " ids can be requested at once");
+    }
+    return ResponseEntity.ok(productService.findAllByIds(ids));
+}
+
+// An unfiltered listing reads the whole table and runs in the bulk lane; filtered listings are mostly
+// list cache hits and stay interactive
+@Bulkhead(value = Lane.BULK, unlessFiltered = {"name", "category", "available"})
+@GetMapping(params = {"!ids", "!sort", "!limit"})
 public ResponseEntity<List<Product>> listProducts(
         @RequestParam(required = false) String name,
         @RequestParam(required = false) String category,
@@ -65,12 +86,7 @@ public ResponseEntity<List<Product>> listProducts(
     if (name != null && !name.isEmpty()) {
         products = productService.findByName(name);
     } else if (category != null && !category.isEmpty()) {
-        try {
-            Product.Category categoryEnum = Product.Category.valueOf(category.toUpperCase());
-            products = productService.findByCategory(categoryEnum);
-        } catch (IllegalArgumentException e) {
-            products = productService.findAll();
-        }
+        products = productService.findByCategory(parseCategory(category));
     } else if (available != null) {
         products = productService.findByAvailability(available);
     } else {
@@ -80,6 +96,47 @@ public ResponseEntity<List<Product>> listProducts(
     return ResponseEntity.ok(products);
 }
 
+// Sorted or limited listings return at most MAX_LIMIT rows and stay in the interactive lane
+@GetMapping(params = {"limit", "!ids"})
+public ResponseEntity<List<Product>> listTopProducts(
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) Boolean available,
+        @RequestParam(required = false) String sort,
+        @RequestParam Integer limit) {
+    return ResponseEntity.ok(productService.findTop(topQuery(name, category, available, sort, limit)));
+}
+
+@GetMapping(params = {"sort", "!limit", "!ids"})
+public ResponseEntity<List<Product>> listSortedProducts(
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) Boolean available,
+        @RequestParam String sort) {
+    return ResponseEntity.ok(productService.findTop(topQuery(name, category, available, sort, null)));
+}
+
+// Sorted listing: every filter applies, sort is "property" or "property,asc|desc", limit defaults to 100
+private ProductQuery topQuery(String name, String category, Boolean available, String sort, Integer limit) {
+    int rows = limit != null ? limit : DEFAULT_LIMIT;
+    if (rows < 1 || rows > MAX_LIMIT) {
+        throw new DataValidationException("limit must be between 1 and " + MAX_LIMIT);
+    }
+    Product.Category categoryEnum = category != null && !category.isEmpty() ? parseCategory(category) : null;
+    return new ProductQuery(name != null && !name.isEmpty() ? name : null, categoryEnum, available,
+            ProductQuery.parseSort(sort), rows);
+}
+
+// An unknown category is rejected rather than widened to the whole catalog, which would be a full scan
+// admitted to the interactive lane
+private static Product.Category parseCategory(String category) {
+    try {
+        return Product.Category.valueOf(category.toUpperCase());
+    } catch (IllegalArgumentException e) {
+        throw new DataValidationException("Unknown category '" + category + "'");
+    }
+}
+
     // List all Products
    
    
@@ -0,0 +1,45 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.bulkhead.Bulkhead;
+import com.productstore.service.bulkhead.Lane;
+import com.productstore.service.deadline.RequestDeadline;
+import com.productstore.service.service.ImportSummary;
+import com.productstore.service.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/products/import")
+public class ProductImportController {
+
+    static final String TEXT_CSV = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    @Autowired
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    // Bulk import products from a CSV or NDJSON request body
+    @RequestDeadline(600_000)
+    @Bulkhead(Lane.BULK)
+    @PostMapping(consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportSummary> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+}
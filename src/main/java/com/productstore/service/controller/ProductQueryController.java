@@ -0,0 +1,35 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.bulkhead.Bulkhead;
+import com.productstore.service.bulkhead.Lane;
+import com.productstore.service.service.CompositeQueryService;
+import com.productstore.service.service.SubQuery;
+import com.productstore.service.service.SubQueryResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/products/query")
+public class ProductQueryController {
+
+    private final CompositeQueryService compositeQueryService;
+
+    @Autowired
+    public ProductQueryController(CompositeQueryService compositeQueryService) {
+        this.compositeQueryService = compositeQueryService;
+    }
+
+    // Several reads in one round trip, run concurrently; a read despite the POST, so interactive
+    @Bulkhead(Lane.INTERACTIVE)
+    @PostMapping
+    public ResponseEntity<Map<String, SubQueryResult>> query(@RequestBody List<SubQuery> queries) {
+        return ResponseEntity.ok(compositeQueryService.execute(queries));
+    }
+}
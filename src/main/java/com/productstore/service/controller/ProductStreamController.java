@@ -0,0 +1,27 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.event.ProductEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/products/stream")
+public class ProductStreamController {
+
+    private final ProductEventStream productEventStream;
+
+    @Autowired
+    public ProductStreamController(ProductEventStream productEventStream) {
+        this.productEventStream = productEventStream;
+    }
+
+    // Subscribe to create/update/delete events as Server-Sent Events
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return productEventStream.subscribe();
+    }
+}
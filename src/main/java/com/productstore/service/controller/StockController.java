@@ -0,0 +1,47 @@
+package com.productstore.service.controller;
+
+import com.productstore.service.inventory.StockLedger;
+import com.productstore.service.inventory.StockLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/products/{productId}")
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class StockController {
+
+    private final StockLedger stockLedger;
+
+    @Autowired
+    public StockController(StockLedger stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    // Take units out of stock; 409 when not enough are left
+    @PostMapping("/reserve")
+    public ResponseEntity<Void> reserve(@PathVariable Long productId,
+                                        @RequestParam(defaultValue = "1") long quantity) {
+        stockLedger.reserve(productId, quantity);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Put units back into stock
+    @PostMapping("/release")
+    public ResponseEntity<Void> release(@PathVariable Long productId,
+                                        @RequestParam(defaultValue = "1") long quantity) {
+        stockLedger.release(productId, quantity);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stock")
+    public ResponseEntity<StockLevel> getStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(new StockLevel(productId, stockLedger.available(productId)));
+    }
+}
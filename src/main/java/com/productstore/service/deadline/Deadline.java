@@ -0,0 +1,92 @@
+package com.productstore.service.deadline;
+
+import com.productstore.service.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * The point in time by which the current request must be answered.
+ *
+ * <p>The deadline of the request being handled is bound to its thread. Work
+ * handed to other threads carries it along through {@link #propagate}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    // The deadline bound to this thread, or null when there is none
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Fail fast when this thread's deadline has already passed
+    public static void checkCurrent() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    // Wraps a task so it runs under the deadline of the thread that created it
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Deadline previous = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                return task.call();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return Duration.ofNanos(remainingNanos()).toMillis();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+    }
+
+    // Earlier of the two deadlines
+    public Deadline min(Deadline other) {
+        return other == null || expiresAtNanos - other.expiresAtNanos <= 0 ? this : other;
+    }
+}
@@ -0,0 +1,43 @@
+package com.productstore.service.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Hikari pool whose callers wait for a connection no longer than their request
+ * deadline, rather than the pool's full connection timeout. Without a deadline,
+ * or before the pool has started, connections are taken as usual.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource implements Closeable {
+
+    private final HikariDataSource hikari;
+
+    public DeadlineAwareDataSource(HikariDataSource hikari) {
+        super(hikari);
+        this.hikari = hikari;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+            long wait = Math.min(hikari.getConnectionTimeout(), deadline.remainingMillis());
+            if (wait <= 0) {
+                throw new SQLTransientConnectionException("Request deadline exceeded before taking a connection");
+            }
+            return pool.getConnection(wait);
+        }
+        return super.getConnection();
+    }
+
+    @Override
+    public void close() {
+        hikari.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.productstore.service.deadline;
+
+import com.productstore.service.exception.DeadlineExceededException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Fits each transaction into the request's remaining time.
+ *
+ * <p>A transaction started after the deadline has passed fails before a connection
+ * is taken from the pool, and {@link DeadlineAwareDataSource} waits for a free
+ * connection only until the deadline. Otherwise its timeout is capped at the
+ * remaining time; Spring passes that on to every query as the JPA query timeout,
+ * which Hibernate sets as the JDBC statement timeout, so the database cancels a
+ * statement the client has stopped waiting for.
+ */
+public class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Deadline.checkCurrent();
+        try {
+            super.doBegin(transaction, definition);
+        } catch (TransactionException e) {
+            // A pool wait cut short by the deadline is reported as such, not as a database failure
+            Deadline deadline = Deadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                DeadlineExceededException exceeded = new DeadlineExceededException(
+                        "Request deadline exceeded waiting for a database connection");
+                exceeded.initCause(e);
+                throw exceeded;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        // Transaction timeouts are whole seconds; round up so a short budget is not turned into none
+        int remaining = (int) Math.max(1, (deadline.remainingMillis() + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+}
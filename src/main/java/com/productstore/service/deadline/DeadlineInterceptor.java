@@ -0,0 +1,71 @@
+package com.productstore.service.deadline;
+
+import com.productstore.service.exception.DataValidationException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Binds a deadline to each request before its handler runs.
+ *
+ * <p>The budget is the handler's {@link RequestDeadline}, or the configured
+ * default, shortened by the client's {@code X-Request-Timeout} header (in
+ * milliseconds) when that is tighter. A request whose budget is already spent is
+ * rejected before it reaches the controller.
+ */
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final Duration defaultTimeout;
+
+    public DeadlineInterceptor(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Deadline deadline = Deadline.after(timeoutFor(handler));
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                deadline = deadline.min(Deadline.after(Duration.ofMillis(Long.parseLong(header.trim()))));
+            } catch (NumberFormatException e) {
+                throw new DataValidationException(TIMEOUT_HEADER + " must be a number of milliseconds");
+            }
+        }
+        deadline.check();
+        Deadline.bind(deadline);
+        return true;
+    }
+
+    // Streaming responses continue on other threads; the request thread is released here
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        Deadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Deadline.clear();
+    }
+
+    private Duration timeoutFor(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            RequestDeadline annotation = method.getMethodAnnotation(RequestDeadline.class);
+            if (annotation == null) {
+                annotation = method.getBeanType().getAnnotation(RequestDeadline.class);
+            }
+            if (annotation != null) {
+                return Duration.ofMillis(annotation.value());
+            }
+        }
+        return defaultTimeout;
+    }
+}
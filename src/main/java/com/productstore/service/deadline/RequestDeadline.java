@@ -0,0 +1,20 @@
+package com.productstore.service.deadline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the default request deadline for a handler method or every handler
+ * of a controller. A client-supplied timeout can shorten it but never extend it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequestDeadline {
+
+    // Time budget in milliseconds
+    long value();
+}
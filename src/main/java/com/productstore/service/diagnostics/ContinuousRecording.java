@@ -0,0 +1,122 @@
+package com.productstore.service.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a flight recording running for the life of the application, with the
+ * JDK's low-overhead {@code default} settings plus the product events. Data rolls
+ * over on disk after {@code max-age} or {@code max-size}, so it is safe to leave
+ * on. {@link #dump} writes out the last minutes through the JFR.dump diagnostic
+ * command, the same one {@code jcmd} uses, which can limit a dump by age where
+ * the Recording API cannot.
+ *
+ * <p>Dumps leave the process over HTTP, so events that copy the environment,
+ * the system properties or the command line, any of which can carry
+ * credentials, are turned off.
+ */
+@Component
+@ConditionalOnProperty(name = "product.jfr.enabled", havingValue = "true")
+public class ContinuousRecording {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    public static final String NAME = "product-continuous";
+
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private Recording recording;
+
+    public ContinuousRecording(@Value("${product.jfr.max-age:PT30M}") Duration maxAge,
+                               @Value("${product.jfr.max-size:250MB}") DataSize maxSize) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @PostConstruct
+    public void start() throws IOException, java.text.ParseException {
+        recording = new Recording(settings());
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.start();
+        logger.info("Started continuous flight recording '{}' (max age {}, max size {})", NAME, maxAge, maxSize);
+    }
+
+    // The default profile with the product events on and anything that may hold secrets off
+    static Map<String, String> settings() throws IOException, java.text.ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        enable(settings, "com.productstore.ProductRequest", "5 ms");
+        enable(settings, "com.productstore.ProductOperation", "1 ms");
+        for (String event : SENSITIVE_EVENTS) {
+            settings.put(event + "#enabled", "false");
+        }
+        return settings;
+    }
+
+    private static void enable(Map<String, String> settings, String event, String threshold) {
+        settings.put(event + "#enabled", "true");
+        settings.put(event + "#threshold", threshold);
+        settings.put(event + "#stackTrace", "false");
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Writes the last {@code window} of the recording to a new temporary file and
+     * returns it; the caller deletes it.
+     */
+    public Path dump(Duration window) throws IOException {
+        Path file = Files.createTempFile(NAME + "-", ".jfr");
+        // JFR.dump refuses to overwrite; it only needs the name reserved
+        Files.delete(file);
+        String[] arguments = {
+                "name=" + NAME,
+                "filename=" + file.toAbsolutePath(),
+                "maxage=" + Math.max(1, window.toSeconds()) + "s"
+        };
+        try {
+            ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                    new Object[]{arguments}, new String[]{String[].class.getName()});
+        } catch (JMException e) {
+            throw new IOException("JFR.dump failed", e);
+        }
+        if (!Files.exists(file)) {
+            throw new IOException("JFR.dump did not write " + file);
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
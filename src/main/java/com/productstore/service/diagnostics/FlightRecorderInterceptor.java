@@ -0,0 +1,54 @@
+package com.productstore.service.diagnostics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times each product request as a {@link ProductRequestEvent}. Streaming
+ * responses are not recorded, as their duration is the client's.
+ */
+public class FlightRecorderInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String EVENT = FlightRecorderInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ProductRequestEvent event = new ProductRequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        request.removeAttribute(EVENT);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ProductRequestEvent event = (ProductRequestEvent) request.getAttribute(EVENT);
+        if (event == null) {
+            return;
+        }
+        request.removeAttribute(EVENT);
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            event.route = route != null ? route.toString() : request.getRequestURI();
+            if (handler instanceof HandlerMethod) {
+                HandlerMethod method = (HandlerMethod) handler;
+                event.handler = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+            }
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
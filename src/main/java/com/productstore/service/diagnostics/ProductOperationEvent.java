@@ -0,0 +1,70 @@
+package com.productstore.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one product service call, opened with {@link #start}
+ * in a try-with-resources block so it is recorded however the call ends. A call
+ * that returns reports its outcome through {@link #complete}; one that throws
+ * never does and is recorded as failed. While the event is disabled, closing it
+ * does nothing beyond the {@code shouldCommit} check, and the filter is only
+ * turned into a string for events that are recorded.
+ */
+@Name("com.productstore.ProductOperation")
+@Label("Product Operation")
+@Category({"Product Store", "Service"})
+@Description("A call into the product service")
+@StackTrace(false)
+public class ProductOperationEvent extends Event implements AutoCloseable {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Filter")
+    private String filter;
+
+    @Label("Rows")
+    private int rowCount;
+
+    @Label("Cache Hit")
+    private boolean cacheHit;
+
+    @Label("Failed")
+    @Description("The call threw instead of returning")
+    private boolean failed;
+
+    // Not recorded: the outcome until the event is closed
+    private transient Object filterSource;
+    private transient boolean completed;
+
+    // Starts timing an operation; close it when the call ends
+    public static ProductOperationEvent start(String operation) {
+        ProductOperationEvent event = new ProductOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    // Outcome of a call that returned
+    public void complete(Object filter, int rowCount, boolean cacheHit) {
+        this.filterSource = filter;
+        this.rowCount = rowCount;
+        this.cacheHit = cacheHit;
+        this.completed = true;
+    }
+
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            this.filter = filterSource == null ? null : filterSource.toString();
+            this.failed = !completed;
+            commit();
+        }
+    }
+}
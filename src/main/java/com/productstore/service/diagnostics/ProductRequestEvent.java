@@ -0,0 +1,32 @@
+package com.productstore.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one request to a product endpoint, from the first
+ * interceptor to completion, so it includes time spent queued in bulkheads.
+ */
+@Name("com.productstore.ProductRequest")
+@Label("Product Request")
+@Category({"Product Store", "Web"})
+@Description("A request handled by a product endpoint")
+@StackTrace(false)
+public class ProductRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    String route;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Status")
+    int status;
+}
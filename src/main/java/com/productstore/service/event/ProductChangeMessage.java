@@ -0,0 +1,32 @@
+package com.productstore.service.event;
+
+import com.productstore.service.model.Product;
+
+/**
+ * Payload of a product change as delivered to external subscribers. {@code product}
+ * is the state after the change and is {@code null} for deletions.
+ */
+public class ProductChangeMessage {
+
+    private final ProductChangedEvent.Type type;
+    private final Long productId;
+    private final Product product;
+
+    public ProductChangeMessage(ProductChangedEvent.Type type, Long productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public ProductChangedEvent.Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+}
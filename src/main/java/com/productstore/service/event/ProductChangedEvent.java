@@ -0,0 +1,68 @@
+package com.productstore.service.event;
+
+import com.productstore.service.model.Product;
+
+/**
+ * Published by the product service after every successful write. Listeners that
+ * keep derived state (read models, caches, streams) use it to refresh incrementally.
+ *
+ * <p>{@code previous} is a detached copy of the product before the write and is
+ * {@code null} for creations; {@code current} is a detached copy after the write
+ * and is {@code null} for deletions.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Product previous;
+    private final Product current;
+
+    public ProductChangedEvent(Type type, Long productId, Product previous, Product current) {
+        this.type = type;
+        this.productId = productId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static ProductChangedEvent created(Product current) {
+        return new ProductChangedEvent(Type.CREATED, current.getId(), null, new Product(current));
+    }
+
+    public static ProductChangedEvent updated(Product previous, Product current) {
+        return new ProductChangedEvent(Type.UPDATED, current.getId(), previous, new Product(current));
+    }
+
+    public static ProductChangedEvent deleted(Product previous) {
+        return new ProductChangedEvent(Type.DELETED, previous.getId(), previous, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Product getPrevious() {
+        return previous;
+    }
+
+    public Product getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{" +
+                "type=" + type +
+                ", productId=" + productId +
+                '}';
+    }
+}
@@ -0,0 +1,189 @@
+package com.productstore.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans product change events out to Server-Sent Events subscribers.
+ *
+ * <p>Open connections are parked in the servlet container's async machinery and
+ * hold no thread. Each subscriber has a bounded buffer; when an event arrives a
+ * virtual thread is started to drain that buffer and exits once it is empty, so
+ * threads scale with active deliveries rather than with connections. A subscriber
+ * whose buffer overflows is too slow to keep up and is disconnected; it can
+ * reconnect and resynchronize.
+ *
+ * <p>Only a subscriber's drain thread ever calls into its emitter. The emitter's
+ * send and complete lock the same monitor, so completing it from the publishing
+ * thread would wait for a send stalled on a slow socket; eviction therefore only
+ * marks the subscriber closed and lets its drain thread complete the emitter.
+ */
+@Component
+public class ProductEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventStream.class);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public ProductEventStream(ObjectMapper objectMapper,
+                              @Value("${product.stream.buffer-size:256}") int bufferSize,
+                              @Value("${product.stream.timeout:PT30M}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(e -> subscribers.remove(subscriber.id));
+        subscribers.put(subscriber.id, subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ProductChangeMessage message = new ProductChangeMessage(
+                event.getType(), event.getProductId(), event.getCurrent());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize {}", event, e);
+            return;
+        }
+        // Built once and shared by every subscriber
+        publish(SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .name(event.getType().name())
+                .data(json, MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    // Keeps idle connections open through proxies and detects dead clients
+    @Scheduled(fixedDelayString = "${product.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            publish(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(s -> s.emitter.complete());
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void publish(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.buffer.offer(frame)) {
+                subscriber.scheduleDrain();
+            } else {
+                evict(subscriber, "buffer full");
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.id) != null) {
+            evictions.incrementAndGet();
+            logger.info("Disconnecting product stream subscriber {}: {}", subscriber.id, reason);
+            subscriber.close();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        // Completes the emitter from the drain thread, after any send in progress returns
+        void close() {
+            closed = true;
+            scheduleDrain();
+        }
+
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        evict(this, "send failed: " + e.getMessage());
+                    }
+                }
+                if (closed) {
+                    // Leaves draining set, so no further drain is started for this subscriber
+                    buffer.clear();
+                    emitter.complete();
+                    return;
+                }
+                draining.set(false);
+                // A frame offered after the last poll but before the reset would otherwise wait
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
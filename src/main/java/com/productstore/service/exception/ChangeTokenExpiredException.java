@@ -0,0 +1,8 @@
+package com.productstore.service.exception;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.productstore.service.exception;
+
+public class RateLimitedException extends RuntimeException {
+
+    // Seconds until the client's next request would be accepted
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
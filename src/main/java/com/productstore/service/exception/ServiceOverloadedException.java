@@ -0,0 +1,16 @@
+package com.productstore.service.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    // Seconds the client should wait before retrying
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
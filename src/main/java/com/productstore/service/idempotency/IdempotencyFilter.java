@@ -0,0 +1,245 @@
+package com.productstore.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.exception.GlobalExceptionHandler;
+import com.productstore.service.limit.ClientIdentity;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST and PUT requests under /products safe to retry.
+ *
+ * <p>A request carrying an {@code Idempotency-Key} header claims the key in the
+ * {@link IdempotencyStore}. The first request runs normally and its response is
+ * stored; a retry with the same key gets that response back without reaching the
+ * controller, and a duplicate arriving while the original is still running waits
+ * for it. Server errors are not stored, so the client can retry them. Reusing a
+ * key for a different request is rejected with 422.
+ *
+ * <p>Keys are scoped to the {@link ClientIdentity} of the caller, so two clients
+ * that pick the same key never see each other's responses. Bodies are buffered
+ * to fingerprint them; one larger than the configured maximum is rejected with
+ * 413 before anything is stored.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    // Claim attempts before giving up on a key whose owners keep failing
+    private static final int MAX_CLAIMS = 3;
+    private static final String[] STORED_HEADERS = {HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION};
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long waitMillis;
+    private final ClientIdentity clients;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, Duration waitTimeout,
+                             ClientIdentity clients, int maxBodyBytes) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitMillis = waitTimeout.toMillis();
+        this.clients = clients;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    // The streaming import reads its body incrementally and is not buffered here
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(HEADER) == null
+                || !("POST".equals(method) || "PUT".equals(method))
+                || request.getRequestURI().startsWith(request.getContextPath() + "/products/import");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header.isBlank() || header.length() > MAX_KEY_LENGTH) {
+            sendError(response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        // Reads at most one byte past the limit, whatever Content-Length claims
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            sendError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + HEADER + " are limited to " + maxBodyBytes + " bytes");
+            return;
+        }
+        String key = clients.of(request) + '\n' + header;
+        String fingerprint = fingerprint(request, body);
+
+        for (int attempt = 0; attempt < MAX_CLAIMS; attempt++) {
+            CompletableFuture<StoredResponse> original = store.claim(key);
+            if (original == null) {
+                execute(key, fingerprint, new CachedBodyRequest(request, body), response, chain);
+                return;
+            }
+            StoredResponse stored;
+            try {
+                stored = original.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                sendError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for the original request", e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored == null) {
+                // The original failed without a response; try to become the owner
+                continue;
+            }
+            if (!stored.getFingerprint().equals(fingerprint)) {
+                sendError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+                return;
+            }
+            replay(stored, response);
+            return;
+        }
+        sendError(response, HttpStatus.CONFLICT, "Requests with this " + HEADER + " keep failing");
+    }
+
+    private void execute(String key, String fingerprint, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : STORED_HEADERS) {
+                    String value = wrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                store.complete(key, new StoredResponse(fingerprint, wrapper.getStatus(), headers,
+                        wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        stored.getHeaders().forEach(response::setHeader);
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void sendError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new GlobalExceptionHandler.ErrorResponse(status.value(), status.getReasonPhrase(), message));
+    }
+
+    // Method, path, query and a body digest identify what the key was used for
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Hands the already consumed body to the rest of the chain
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
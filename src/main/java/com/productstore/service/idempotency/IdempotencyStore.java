@@ -0,0 +1,24 @@
+package com.productstore.service.idempotency;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Backend for idempotency keys. The default keeps keys in memory; a shared
+ * store lets retries that land on another instance be answered as well.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for a new request. Returns null when the caller now owns the
+     * key and must {@link #complete} or {@link #abandon} it. Otherwise returns the
+     * future response of the request that owns it, which completes with null if
+     * that request is abandoned.
+     */
+    CompletableFuture<StoredResponse> claim(String key);
+
+    // Store the owner's response and hand it to everyone waiting on the key
+    void complete(String key, StoredResponse response);
+
+    // Release the key without a response, so a retry executes again
+    void abandon(String key);
+}
@@ -0,0 +1,99 @@
+package com.productstore.service.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Idempotency keys held in process memory. Entries expire a fixed time after
+ * they were claimed, and the oldest are dropped once the store is full.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final class Entry {
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private final long expiresAt;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Clock clock;
+    private final long ttlMillis;
+    // Insertion order is expiry order, since every entry lives for the same time
+    private final LinkedHashMap<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                release(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public synchronized CompletableFuture<StoredResponse> claim(String key) {
+        long now = clock.millis();
+        expire(now);
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing.response;
+        }
+        entries.put(key, new Entry(now + ttlMillis));
+        return null;
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            entry.response.complete(response);
+        }
+    }
+
+    @Override
+    public void abandon(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void expire(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt > now) {
+                break;
+            }
+            release(entry);
+            iterator.remove();
+        }
+    }
+
+    // Requests waiting on a key that is dropped while still in flight go ahead on their own
+    private static void release(Entry entry) {
+        entry.response.complete(null);
+    }
+}
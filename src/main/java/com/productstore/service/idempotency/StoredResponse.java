@@ -0,0 +1,38 @@
+package com.productstore.service.idempotency;
+
+import java.util.Map;
+
+/**
+ * The first response produced for an idempotency key, replayed verbatim to
+ * retries. The fingerprint identifies the request it answered.
+ */
+public class StoredResponse {
+
+    private final String fingerprint;
+    private final int status;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public StoredResponse(String fingerprint, int status, Map<String, String> headers, byte[] body) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,94 @@
+package com.productstore.service.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative stock quantity spread over several independently updated stripes.
+ *
+ * <p>Like a {@link java.util.concurrent.atomic.LongAdder}, concurrent callers update
+ * different cache lines instead of all spinning on one. Unlike it, a reservation
+ * only succeeds when a stripe can cover it, so the total can never go negative.
+ * When no single stripe holds enough, the reservation falls back to a locked path
+ * that pools all stripes, takes the quantity and spreads the remainder again.
+ */
+public class StockCounter {
+
+    // Slots between stripes, so each stripe sits on its own 64-byte cache line
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StockCounter(long initial, int stripes) {
+        if (initial < 0) {
+            throw new IllegalArgumentException("Initial stock cannot be negative: " + initial);
+        }
+        this.stripes = Integer.highestOneBit(Math.max(1, stripes));
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+        spread(initial);
+    }
+
+    // Take the quantity if available; never leaves the counter below zero
+    public boolean tryReserve(long quantity) {
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((home + i) & (stripes - 1)) * PADDING;
+            long current = cells.get(cell);
+            while (current >= quantity) {
+                if (cells.compareAndSet(cell, current, current - quantity)) {
+                    return true;
+                }
+                current = cells.get(cell);
+            }
+        }
+        return reservePooled(quantity);
+    }
+
+    public void release(long quantity) {
+        cells.getAndAdd(homeStripe() * PADDING, quantity);
+    }
+
+    // Locked so the total is not read while the pooled path moves stock between stripes
+    public synchronized long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    // Take every unit out of the counter and return how many there were
+    public synchronized long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    private synchronized boolean reservePooled(long quantity) {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        boolean reserved = total >= quantity;
+        if (reserved) {
+            total -= quantity;
+        }
+        spread(total);
+        return reserved;
+    }
+
+    private void spread(long total) {
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & (stripes - 1);
+    }
+}
@@ -0,0 +1,183 @@
+package com.productstore.service.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of stock changes, kept as a directory of segment files.
+ *
+ * <p>Each record holds a sequence number, product id and signed quantity followed
+ * by a CRC32 (big-endian, 28 bytes). Records are buffered and made durable in one
+ * {@code force} per batch. The ledger rolls to a new segment on every flush, and
+ * sealed segments are deleted once the database has applied everything in them.
+ * On recovery a torn or corrupt record ends its segment. Not thread-safe; the
+ * ledger serializes access.
+ */
+public class StockJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = 28;
+    private static final String SUFFIX = ".journal";
+
+    /**
+     * One recorded stock change.
+     */
+    public static class Entry {
+
+        private final long seq;
+        private final long productId;
+        private final long delta;
+
+        public Entry(long seq, long productId, long delta) {
+            this.seq = seq;
+            this.productId = productId;
+            this.delta = delta;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public long getProductId() {
+            return productId;
+        }
+
+        public long getDelta() {
+            return delta;
+        }
+    }
+
+    private final Path directory;
+    private final List<Path> sealed = new ArrayList<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096);
+    private final CRC32 crc = new CRC32();
+    private FileChannel current;
+    private Path currentPath;
+
+    public StockJournal(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    // Read every intact record in sequence order, across all segments
+    public static List<Entry> readAll(Path directory) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CRC32 crc = new CRC32();
+                while (in.remaining() >= RECORD_SIZE) {
+                    long seq = in.getLong();
+                    long productId = in.getLong();
+                    long delta = in.getLong();
+                    int checksum = in.getInt();
+                    if (checksum != checksum(crc, seq, productId, delta)) {
+                        break;
+                    }
+                    entries.add(new Entry(seq, productId, delta));
+                }
+            }
+        }
+        return entries;
+    }
+
+    public void append(long seq, long productId, long delta) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            write();
+        }
+        buffer.putLong(seq).putLong(productId).putLong(delta).putInt(checksum(crc, seq, productId, delta));
+        if (currentPath == null) {
+            currentPath = directory.resolve(String.format("stock-%019d%s", seq, SUFFIX));
+            current = FileChannel.open(currentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+    }
+
+    // Write buffered records and wait until they are on stable storage
+    public void sync() throws IOException {
+        write();
+        if (current != null) {
+            current.force(false);
+        }
+    }
+
+    /**
+     * Closes the current segment so later records go to a new one, and returns
+     * every sealed segment that has not been deleted yet.
+     */
+    public List<Path> roll() throws IOException {
+        sync();
+        if (current != null) {
+            current.close();
+            sealed.add(currentPath);
+            current = null;
+            currentPath = null;
+        }
+        return List.copyOf(sealed);
+    }
+
+    public void delete(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+            sealed.remove(segment);
+        }
+    }
+
+    // Delete all segments, including ones left behind by an earlier run
+    public void deleteAll() throws IOException {
+        for (Path segment : segments(directory)) {
+            Files.deleteIfExists(segment);
+        }
+        sealed.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            sync();
+            current.close();
+            current = null;
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            current.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "stock-*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        // Names embed the zero-padded first sequence number, so name order is sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    private static int checksum(CRC32 crc, long seq, long productId, long delta) {
+        crc.reset();
+        update(crc, seq);
+        update(crc, productId);
+        update(crc, delta);
+        return (int) crc.getValue();
+    }
+
+    private static void update(CRC32 crc, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (value >>> shift));
+        }
+    }
+}
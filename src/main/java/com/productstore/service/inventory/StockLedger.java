@@ -0,0 +1,586 @@
+package com.productstore.service.inventory;
+
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.exception.InsufficientStockException;
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.model.StockCheckpoint;
+import com.productstore.service.model.StockLease;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.repository.StockCheckpointRepository;
+import com.productstore.service.repository.StockLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock quantities reserved in memory, with escrow so several nodes never hand out
+ * the same units, and write-behind to the database.
+ *
+ * <p>The {@code stock} column of a product is its pool of unallocated units. A node
+ * leases units from the pool in chunks of up to {@code product.stock.lease-size},
+ * in one short transaction that moves them into its row of {@code stock_leases},
+ * and then decides reservations against a local {@link StockCounter}, so buyers of
+ * the same SKU never queue on a row lock. A node can only hand out units it leased,
+ * so replicas cannot oversell. The stock of a product is its pool plus all leases.
+ *
+ * <p>Every accepted change is handed to a single writer thread through a lock-free
+ * queue; the writer sums the changes per product, and a scheduled flush applies
+ * each sum to this node's lease in a single transaction. After each flush, counters
+ * idle for a whole interval give their units back to the pool and are dropped, and
+ * busy ones return what they hold beyond twice the lease size, so memory stays
+ * bounded and idle units do not sit out of reach of other nodes.
+ *
+ * <p>With {@code product.stock.journal.path} set (the default configuration) the
+ * writer first appends the changes to a {@link StockJournal} and forces it, and
+ * callers return only after their change is durable; one force covers every change
+ * that arrived meanwhile. Each flush records the last journal sequence number it
+ * applied in the same transaction. On startup the node replays exactly the changes
+ * its leases are missing and returns the leases to the pool. The node id is kept in
+ * the journal directory, so a restarted node recovers its own leases. Without a
+ * journal, a crash loses up to one flush interval of changes and the leases of the
+ * crashed node stay out of the pool.
+ *
+ * <p>Recovery runs as a lifecycle phase before the web server starts, not at bean
+ * creation, so contexts that exit on refresh never touch the database. Pools and
+ * leases live in one database, so the ledger is not created when products are sharded.
+ */
+@Component
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class StockLedger implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final int MAX_WRITER_BATCH = 4096;
+    private static final String NODE_ID_FILE = "node-id";
+
+    private final ProductRepository productRepository;
+    private final StockLeaseRepository leaseRepository;
+    private final StockCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+    private final long leaseSize;
+    private final Path journalPath;
+    private final Map<Long, Holding> holdings = new ConcurrentHashMap<>();
+    private final LinkedTransferQueue<Change> changes = new LinkedTransferQueue<>();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    // Serializes the transactions that write this node's leases, as a lease row may have to be inserted
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private final Thread writer = new Thread(this::runWriter, "stock-writer");
+    private volatile boolean running;
+    private volatile boolean journalFailed;
+    private volatile String nodeId;
+
+    // Guarded by this: sums not yet flushed, the last sequence number they include, the journal
+    private Map<Long, Long> pending = new HashMap<>();
+    private Map<Long, Long> flushing = Map.of();
+    private long lastSeq;
+    private StockJournal journal;
+
+    @Autowired
+    public StockLedger(ProductRepository productRepository,
+                       StockLeaseRepository leaseRepository,
+                       StockCheckpointRepository checkpointRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${product.stock.stripes:0}") int stripes,
+                       @Value("${product.stock.lease-size:100}") long leaseSize,
+                       @Value("${product.stock.journal.path:}") String journalPath) {
+        this.productRepository = productRepository;
+        this.leaseRepository = leaseRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.leaseSize = Math.max(1, leaseSize);
+        this.journalPath = journalPath.isEmpty() ? null : Path.of(journalPath);
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Replays journaled changes the leases have not seen, returns this node's
+     * leases to the pool, since its counters start empty, and starts the writer.
+     */
+    @Override
+    public void start() {
+        try {
+            nodeId = resolveNodeId();
+            List<StockJournal.Entry> entries = journalPath != null ? StockJournal.readAll(journalPath) : List.of();
+            leaseLock.lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> recover(entries));
+            } finally {
+                leaseLock.unlock();
+            }
+            if (journalPath != null) {
+                journal = new StockJournal(journalPath);
+                journal.deleteAll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the stock journal " + journalPath, e);
+        }
+        running = true;
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        try {
+            shutdown();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the stock journal", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Recover before the web server accepts requests, and stop after it
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public void reserve(Long productId, long quantity) {
+        checkQuantity(quantity);
+        take(productId, quantity);
+        try {
+            record(productId, -quantity);
+        } catch (RuntimeException e) {
+            give(productId, quantity);
+            throw e;
+        }
+    }
+
+    // Return units to stock, from a cancelled reservation or a delivery
+    public void release(Long productId, long quantity) {
+        checkQuantity(quantity);
+        holdingFor(productId);
+        record(productId, quantity);
+        give(productId, quantity);
+    }
+
+    // Pool plus every node's lease, with this node's unflushed changes
+    public long available(Long productId) {
+        long pool = productRepository.findStockById(productId).orElseThrow(
+                () -> new ProductNotFoundException("Product with ID " + productId + " not found"));
+        long leased = leaseRepository.sumUnitsByProductId(productId);
+        synchronized (this) {
+            return pool + leased + pending.getOrDefault(productId, 0L) + flushing.getOrDefault(productId, 0L);
+        }
+    }
+
+    /**
+     * Applies the summed changes to this node's leases in one transaction, then
+     * returns idle and surplus units to the pool. On failure the sums are put back
+     * and retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${product.stock.flush-interval:PT1S}")
+    public void flush() {
+        if (!running) {
+            return;
+        }
+        applyPending();
+        rebalance(epoch.incrementAndGet());
+    }
+
+    // A deleted product's holding and leases must not outlive it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            Holding holding = holdings.remove(event.getProductId());
+            if (holding != null) {
+                holding.lock.lock();
+                try {
+                    holding.retired = true;
+                    holding.counter.drain();
+                } finally {
+                    holding.lock.unlock();
+                }
+            }
+            leaseLock.lock();
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> leaseRepository.deleteByProductId(event.getProductId()));
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    public long getFlushedRowCount() {
+        return flushedRows.get();
+    }
+
+    public int getHoldingCount() {
+        return holdings.size();
+    }
+
+    // Flushes what was accepted and gives every held unit back to the pool
+    public void shutdown() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        applyPending();
+        holdings.forEach(this::retire);
+        synchronized (this) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    private void recover(List<StockJournal.Entry> entries) {
+        long applied = checkpointRepository.findById(nodeId)
+                .map(StockCheckpoint::getAppliedSeq)
+                .orElse(0L);
+        Map<Long, Long> missing = new HashMap<>();
+        long seq = applied;
+        for (StockJournal.Entry entry : entries) {
+            if (entry.getSeq() > applied) {
+                missing.merge(entry.getProductId(), entry.getDelta(), Long::sum);
+                seq = Math.max(seq, entry.getSeq());
+            }
+        }
+        missing.forEach(this::addLeaseUnits);
+        List<StockLease> leases = leaseRepository.findByNodeId(nodeId);
+        for (StockLease lease : leases) {
+            // Zero rows means the product was deleted meanwhile; its stock is gone with it
+            productRepository.addStock(lease.getProductId(), lease.getUnits());
+        }
+        leaseRepository.deleteByNodeId(nodeId);
+        checkpointRepository.save(new StockCheckpoint(nodeId, seq));
+        lastSeq = seq;
+        if (!missing.isEmpty() || !leases.isEmpty()) {
+            logger.info("Recovered unflushed stock changes for {} products and returned {} leases of node {}",
+                    missing.size(), leases.size(), nodeId);
+        }
+    }
+
+    private void applyPending() {
+        Map<Long, Long> batch;
+        long seq;
+        List<Path> sealed;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            flushing = batch;
+            seq = lastSeq;
+            try {
+                sealed = journal != null ? journal.roll() : List.of();
+            } catch (IOException e) {
+                journalFailed = true;
+                pending = batch;
+                flushing = Map.of();
+                throw new UncheckedIOException("Could not roll stock journal", e);
+            }
+        }
+        leaseLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(this::addLeaseUnits);
+                checkpointRepository.save(new StockCheckpoint(nodeId, seq));
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Stock flush of {} products failed, will retry", batch.size(), e);
+            synchronized (this) {
+                batch.forEach((id, delta) -> pending.merge(id, delta, Long::sum));
+                flushing = Map.of();
+            }
+            return;
+        } finally {
+            leaseLock.unlock();
+        }
+        synchronized (this) {
+            flushing = Map.of();
+        }
+        flushedRows.addAndGet(batch.size());
+        if (!sealed.isEmpty()) {
+            synchronized (this) {
+                try {
+                    journal.delete(sealed);
+                } catch (IOException e) {
+                    // Harmless: the checkpoint already marks these records as applied
+                    logger.warn("Could not delete applied stock journal segments", e);
+                }
+            }
+        }
+    }
+
+    // Drop holdings untouched since the previous flush and trim busy ones to twice the lease size
+    private void rebalance(long currentEpoch) {
+        holdings.forEach((productId, holding) -> {
+            if (holding.lastUsed < currentEpoch - 1) {
+                retire(productId, holding);
+                return;
+            }
+            long surplus = holding.counter.available() - leaseSize;
+            if (surplus > leaseSize && holding.counter.tryReserve(surplus)) {
+                returnUnits(productId, surplus);
+            }
+        });
+    }
+
+    private void retire(Long productId, Holding holding) {
+        long units;
+        holding.lock.lock();
+        try {
+            if (holding.retired) {
+                return;
+            }
+            holding.retired = true;
+            holdings.remove(productId, holding);
+            units = holding.counter.drain();
+        } finally {
+            holding.lock.unlock();
+        }
+        if (units > 0) {
+            returnUnits(productId, units);
+        }
+    }
+
+    /**
+     * Takes units from this node's holding, leasing more from the pool when it
+     * runs short. A holding retired meanwhile is replaced and the attempt repeated.
+     */
+    private void take(Long productId, long quantity) {
+        while (true) {
+            Holding holding = holdingFor(productId);
+            if (holding.counter.tryReserve(quantity)) {
+                return;
+            }
+            holding.lock.lock();
+            try {
+                if (holding.retired) {
+                    continue;
+                }
+                if (!holding.counter.tryReserve(quantity)) {
+                    holding.counter.release(lease(productId, quantity));
+                    if (!holding.counter.tryReserve(quantity)) {
+                        throw new InsufficientStockException("Product with ID " + productId + " has fewer than "
+                                + quantity + " units in stock");
+                    }
+                }
+                return;
+            } finally {
+                holding.lock.unlock();
+            }
+        }
+    }
+
+    // Puts units into this node's holding, moving them on if an eviction retired that holding meanwhile
+    private void give(Long productId, long quantity) {
+        Holding holding = holdingFor(productId);
+        holding.counter.release(quantity);
+        while (holding.retired) {
+            long stranded = holding.counter.drain();
+            holding = holdingFor(productId);
+            holding.counter.release(stranded);
+        }
+    }
+
+    // Moves up to a lease worth of units, at least the quantity, but never more than half a small pool
+    private long lease(Long productId, long quantity) {
+        leaseLock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                long pool = productRepository.lockStockById(productId).orElseThrow(
+                        () -> new ProductNotFoundException("Product with ID " + productId + " not found"));
+                long granted = Math.min(pool, Math.max(quantity, Math.min(leaseSize, pool / 2)));
+                if (granted > 0) {
+                    productRepository.addStock(productId, -granted);
+                    addLeaseUnits(productId, granted);
+                }
+                return granted;
+            });
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private void returnUnits(Long productId, long units) {
+        leaseLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                addLeaseUnits(productId, -units);
+                productRepository.addStock(productId, units);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not return {} units of product {} to the pool, keeping them", units, productId, e);
+            give(productId, units);
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    // Caller holds the lease lock and a transaction
+    private void addLeaseUnits(Long productId, long delta) {
+        if (delta != 0 && leaseRepository.addUnits(nodeId, productId, delta) == 0) {
+            leaseRepository.save(new StockLease(nodeId, productId, delta));
+        }
+    }
+
+    private Holding holdingFor(Long productId) {
+        Holding holding = holdings.computeIfAbsent(productId, id -> {
+            if (!productRepository.existsById(id)) {
+                throw new ProductNotFoundException("Product with ID " + id + " not found");
+            }
+            return new Holding(new StockCounter(0, stripes));
+        });
+        holding.lastUsed = epoch.get();
+        return holding;
+    }
+
+    private String resolveNodeId() throws IOException {
+        if (journalPath == null) {
+            return UUID.randomUUID().toString();
+        }
+        Path file = Files.createDirectories(journalPath).resolve(NODE_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    private void checkQuantity(long quantity) {
+        if (quantity <= 0) {
+            throw new DataValidationException("Quantity must be positive");
+        }
+    }
+
+    private void record(Long productId, long delta) {
+        if (journalFailed) {
+            throw new IllegalStateException("Stock journal is unavailable");
+        }
+        Change change = new Change(productId, delta, journal != null ? new CompletableFuture<>() : null);
+        changes.add(change);
+        if (change.durable != null) {
+            try {
+                change.durable.join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Stock change could not be journaled", e.getCause());
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<Change> batch = new ArrayList<>();
+        while (running || !changes.isEmpty()) {
+            try {
+                Change first = changes.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                changes.drainTo(batch, MAX_WRITER_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Change> batch) {
+        IOException failure = null;
+        synchronized (this) {
+            if (journal != null && !journalFailed) {
+                try {
+                    long seq = lastSeq;
+                    for (Change change : batch) {
+                        journal.append(++seq, change.productId, change.delta);
+                    }
+                    journal.sync();
+                } catch (IOException e) {
+                    // After a failed force the file contents are unknown, so stop journaling altogether
+                    journalFailed = true;
+                    failure = e;
+                }
+            } else if (journalFailed) {
+                failure = new IOException("Stock journal is unavailable");
+            }
+            if (failure == null) {
+                for (Change change : batch) {
+                    pending.merge(change.productId, change.delta, Long::sum);
+                }
+                lastSeq += batch.size();
+            }
+        }
+        if (failure != null) {
+            logger.error("Could not journal {} stock changes", batch.size(), failure);
+        }
+        for (Change change : batch) {
+            if (change.durable != null) {
+                if (failure == null) {
+                    change.durable.complete(null);
+                } else {
+                    change.durable.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    // Units of one product leased to this node; retired once evicted, after which it takes no new units
+    private static class Holding {
+        // Held while leasing or retiring; a lock rather than a monitor, as leasing waits on the database
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StockCounter counter;
+        private volatile boolean retired;
+        private volatile long lastUsed;
+
+        Holding(StockCounter counter) {
+            this.counter = counter;
+        }
+    }
+
+    // One accepted stock change on its way to the writer
+    private static class Change {
+        private final Long productId;
+        private final long delta;
+        private final CompletableFuture<Void> durable;
+
+        Change(Long productId, long delta, CompletableFuture<Void> durable) {
+            this.productId = productId;
+            this.delta = delta;
+            this.durable = durable;
+        }
+    }
+}
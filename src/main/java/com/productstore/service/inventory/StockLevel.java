@@ -0,0 +1,23 @@
+package com.productstore.service.inventory;
+
+/**
+ * Units of a product currently available for reservation.
+ */
+public class StockLevel {
+
+    private final Long productId;
+    private final long available;
+
+    public StockLevel(Long productId, long available) {
+        this.productId = productId;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+}
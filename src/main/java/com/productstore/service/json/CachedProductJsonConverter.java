@@ -0,0 +1,101 @@
+package com.productstore.service.json;
+
+import com.productstore.service.model.Product;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes {@link Product} and collections of products from the bytes held in a
+ * {@link ProductJsonCache}, so hot reads skip Jackson entirely. A list is the
+ * cached fragments joined with commas inside brackets. Reading is left to the
+ * regular Jackson converter.
+ */
+public class CachedProductJsonConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ProductJsonCache cache;
+
+    public CachedProductJsonConverter(ProductJsonCache cache) {
+        super(MediaType.APPLICATION_JSON);
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Product.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    // The declared type decides, since a List<Product> arrives as a plain ArrayList
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (type == null) {
+            return supports(clazz);
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        if (Collection.class.isAssignableFrom(resolved.toClass())) {
+            return resolved.asCollection().getGeneric().toClass() == Product.class;
+        }
+        return resolved.toClass() == Product.class;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof Product) {
+            byte[] json = cache.toJson((Product) value);
+            outputMessage.getHeaders().setContentLength(json.length);
+            outputMessage.getBody().write(json);
+            return;
+        }
+        Collection<?> products = (Collection<?>) value;
+        List<byte[]> fragments = new ArrayList<>(products.size());
+        long length = 2 + Math.max(0, products.size() - 1);
+        for (Object product : products) {
+            byte[] json = cache.toJson((Product) product);
+            fragments.add(json);
+            length += json.length;
+        }
+        outputMessage.getHeaders().setContentLength(length);
+        OutputStream out = outputMessage.getBody();
+        out.write('[');
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(fragments.get(i));
+        }
+        out.write(']');
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+}
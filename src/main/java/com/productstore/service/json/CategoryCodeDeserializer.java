@@ -0,0 +1,29 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.productstore.service.model.Product;
+
+import java.io.IOException;
+
+/**
+ * Reads a category written by {@link CategoryCodeSerializer}; an unknown code is a bad request.
+ */
+public class CategoryCodeDeserializer extends StdDeserializer<Product.Category> {
+
+    public CategoryCodeDeserializer() {
+        super(Product.Category.class);
+    }
+
+    @Override
+    public Product.Category deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        int code = parser.getValueAsInt();
+        try {
+            return Product.Category.fromCode((short) code);
+        } catch (IllegalArgumentException e) {
+            return (Product.Category) context.handleWeirdNumberValue(Product.Category.class, code,
+                    "not a known category code");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.productstore.service.model.Product;
+
+import java.io.IOException;
+
+/**
+ * Writes a category as its stable {@link Product.Category#getCode() code}, the
+ * same number the database stores, so reordering the enum changes nothing on the wire.
+ */
+public class CategoryCodeSerializer extends StdSerializer<Product.Category> {
+
+    public CategoryCodeSerializer() {
+        super(Product.Category.class);
+    }
+
+    @Override
+    public void serialize(Product.Category value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeNumber(value.getCode());
+    }
+}
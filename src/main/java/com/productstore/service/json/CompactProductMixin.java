@@ -0,0 +1,23 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.productstore.service.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Jackson mix-in for {@link Product} on the binary wire formats: the price travels
+ * as an integer number of cents and the category as its stable code, both of which
+ * the binary encoders store in a few bytes. JSON keeps the readable representation.
+ */
+public abstract class CompactProductMixin {
+
+    @JsonSerialize(using = ScaledPriceSerializer.class)
+    @JsonDeserialize(using = ScaledPriceDeserializer.class)
+    private BigDecimal price;
+
+    @JsonSerialize(using = CategoryCodeSerializer.class)
+    @JsonDeserialize(using = CategoryCodeDeserializer.class)
+    private Product.Category category;
+}
@@ -0,0 +1,113 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.Product;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized JSON of recently written products, keyed by id.
+ *
+ * <p>An entry remembers the field values it was serialized from and is reused
+ * only for a product whose values are the same, so a reader that loaded a row
+ * just before an update can never plant stale bytes for later readers. Entries
+ * are also dropped when their product changes, which keeps memory to products
+ * that are actually read. When full, an arbitrary entry makes room.
+ */
+public class ProductJsonCache {
+
+    private final ObjectWriter writer;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ProductJsonCache(ObjectMapper objectMapper, int maxEntries) {
+        this.writer = objectMapper.writerFor(Product.class);
+        this.maxEntries = maxEntries;
+    }
+
+    // UTF-8 JSON of the product, exactly as the regular Jackson converter would write it
+    public byte[] toJson(Product product) throws IOException {
+        Long id = product.getId();
+        if (id == null) {
+            return writer.writeValueAsBytes(product);
+        }
+        Entry entry = entries.get(id);
+        if (entry != null && entry.matches(product)) {
+            hits.incrementAndGet();
+            return entry.json;
+        }
+        misses.incrementAndGet();
+        byte[] json = writer.writeValueAsBytes(product);
+        if (entry == null && entries.size() >= maxEntries) {
+            Iterator<Long> victims = entries.keySet().iterator();
+            if (victims.hasNext()) {
+                entries.remove(victims.next());
+            }
+        }
+        entries.put(id, new Entry(product, json));
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        entries.remove(event.getProductId());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    // The serialized fields of one product and the bytes they produced
+    private static final class Entry {
+        private final String name;
+        private final String description;
+        private final BigDecimal price;
+        private final Boolean available;
+        private final Product.Category category;
+        private final Instant updatedAt;
+        private final Long changeSeq;
+        private final byte[] json;
+
+        Entry(Product product, byte[] json) {
+            this.name = product.getName();
+            this.description = product.getDescription();
+            this.price = product.getPrice();
+            this.available = product.getAvailable();
+            this.category = product.getCategory();
+            this.updatedAt = product.getUpdatedAt();
+            this.changeSeq = product.getChangeSeq();
+            this.json = json;
+        }
+
+        // BigDecimal.equals on purpose: 10.0 and 10.00 serialize differently
+        boolean matches(Product product) {
+            return Objects.equals(changeSeq, product.getChangeSeq())
+                    && Objects.equals(updatedAt, product.getUpdatedAt())
+                    && Objects.equals(price, product.getPrice())
+                    && Objects.equals(available, product.getAvailable())
+                    && category == product.getCategory()
+                    && Objects.equals(name, product.getName())
+                    && Objects.equals(description, product.getDescription());
+        }
+    }
+}
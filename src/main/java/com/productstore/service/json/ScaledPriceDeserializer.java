@@ -0,0 +1,23 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads a price written by {@link ScaledPriceSerializer} back into a two-decimal amount.
+ */
+public class ScaledPriceDeserializer extends StdDeserializer<BigDecimal> {
+
+    public ScaledPriceDeserializer() {
+        super(BigDecimal.class);
+    }
+
+    @Override
+    public BigDecimal deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return BigDecimal.valueOf(parser.getValueAsLong(), ScaledPriceSerializer.SCALE);
+    }
+}
@@ -0,0 +1,28 @@
+package com.productstore.service.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes a price as whole cents, rounded half up to the two decimals the price
+ * column stores.
+ */
+public class ScaledPriceSerializer extends StdSerializer<BigDecimal> {
+
+    static final int SCALE = 2;
+
+    public ScaledPriceSerializer() {
+        super(BigDecimal.class);
+    }
+
+    @Override
+    public void serialize(BigDecimal value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeNumber(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+}
@@ -0,0 +1,126 @@
+package com.productstore.service.limit;
+
+import com.productstore.service.exception.ServiceOverloadedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows the service's actual capacity (AIMD).
+ *
+ * <p>Every completed request reports its latency. While latency stays within
+ * {@code tolerance} times the baseline (the lowest latency seen in the current
+ * or previous window of samples) and the limit is actually being used, the limit
+ * grows by one. A slow or dropped request shrinks it by {@code backoffRatio}.
+ * Requests that started before the last decrease are ignored for further
+ * decreases, so one congestion episode backs off once instead of once per
+ * request caught up in it. Requests beyond the limit are rejected at once rather
+ * than queued, which keeps latency for admitted requests near the baseline.
+ */
+public class AdaptiveLimiter {
+
+    private static final int WINDOW = 250;
+    // Latencies below this are never treated as congestion, whatever the baseline
+    private static final long MIN_CONGESTED_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+
+    // Guarded by this
+    private double exactLimit;
+    private long previousWindowMin = Long.MAX_VALUE;
+    private long windowMin = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecrease = Long.MIN_VALUE;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, System::nanoTime);
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance,
+                    LongSupplier nanoTime) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.nanoTime = nanoTime;
+        this.exactLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) exactLimit;
+    }
+
+    /**
+     * Admits a request and returns its start time, to be passed back to
+     * {@link #complete}; throws {@link ServiceOverloadedException} when the limit is reached.
+     */
+    public long acquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new ServiceOverloadedException("Concurrency limit of " + limit + " requests reached", 1);
+        }
+        admitted.incrementAndGet();
+        return nanoTime.getAsLong();
+    }
+
+    // Releases the request's slot and feeds its latency into the limit
+    public void complete(long startNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        sample(startNanos, nanoTime.getAsLong() - startNanos, current, dropped);
+    }
+
+    // Releases the slot without a sample, for requests whose latency says nothing about capacity
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Rate limiting happens in front of this limiter, so its rejection count is passed in
+    public LimiterStats stats(long rateLimited) {
+        long baseline;
+        synchronized (this) {
+            baseline = Math.min(previousWindowMin, windowMin);
+        }
+        return new LimiterStats(limit, inFlight.get(), admitted.get(), rejected.get(),
+                baseline == Long.MAX_VALUE ? 0 : baseline / 1e6, rateLimited);
+    }
+
+    private synchronized void sample(long startNanos, long rttNanos, int inFlightAtEnd, boolean dropped) {
+        if (!dropped) {
+            windowMin = Math.min(windowMin, rttNanos);
+            if (++windowSamples >= WINDOW) {
+                previousWindowMin = windowMin;
+                windowMin = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+        }
+        long baseline = Math.min(previousWindowMin, windowMin);
+        boolean congested = dropped
+                || (rttNanos > MIN_CONGESTED_NANOS && baseline != Long.MAX_VALUE && rttNanos > baseline * tolerance);
+        if (congested) {
+            if (startNanos >= lastDecrease) {
+                exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+                lastDecrease = nanoTime.getAsLong();
+            }
+        } else if (inFlightAtEnd * 2 >= limit) {
+            // Only grow while the current limit is at least half used
+            exactLimit = Math.min(maxLimit, exactLimit + 1);
+        }
+        limit = (int) exactLimit;
+    }
+}
@@ -0,0 +1,25 @@
+package com.productstore.service.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Who a request comes from, for rate limits and idempotency keys: the
+ * authenticated user, else the header a trusted proxy sets, else the peer
+ * address. Never a value the caller picks, unless the header is configured to one.
+ */
+public class ClientIdentity {
+
+    private final String header;
+
+    public ClientIdentity(String header) {
+        this.header = header;
+    }
+
+    public String of(HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return "user:" + request.getUserPrincipal().getName();
+        }
+        String client = header.isEmpty() ? null : request.getHeader(header);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,66 @@
+package com.productstore.service.limit;
+
+import com.productstore.service.exception.RateLimitedException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client request rate limit, one {@link TokenBucket} per client key. The buckets
+ * are kept in access order and capped at {@code maxClients}: taking a new client
+ * drops the least recently seen one in constant time, and a client coming back
+ * simply starts with a full bucket again.
+ */
+public class ClientRateLimiter {
+
+    private final double ratePerSecond;
+    private final double burst;
+    private final int maxClients;
+    private final LongSupplier nanoTime;
+    private final Map<String, TokenBucket> buckets;
+    private final AtomicLong limited = new AtomicLong();
+
+    public ClientRateLimiter(double ratePerSecond, double burst, int maxClients) {
+        this(ratePerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double ratePerSecond, double burst, int maxClients, LongSupplier nanoTime) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.maxClients = maxClients;
+        this.nanoTime = nanoTime;
+        this.buckets = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > ClientRateLimiter.this.maxClients;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return ratePerSecond > 0;
+    }
+
+    // Throws RateLimitedException when the client has used up its bucket
+    public void acquire(String client) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        long waitNanos = buckets.computeIfAbsent(client, key -> new TokenBucket(ratePerSecond, burst, now))
+                .tryTake(now);
+        if (waitNanos > 0) {
+            limited.incrementAndGet();
+            throw new RateLimitedException("Rate limit of " + ratePerSecond + " requests per second exceeded",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    public long getLimitedCount() {
+        return limited.get();
+    }
+}
@@ -0,0 +1,48 @@
+package com.productstore.service.limit;
+
+/**
+ * Point-in-time state of the adaptive limiter and the per-client rate limits.
+ */
+public class LimiterStats {
+
+    private final int limit;
+    private final int inFlight;
+    private final long admitted;
+    private final long rejected;
+    private final double baselineMillis;
+    private final long rateLimited;
+
+    public LimiterStats(int limit, int inFlight, long admitted, long rejected, double baselineMillis,
+                        long rateLimited) {
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.baselineMillis = baselineMillis;
+        this.rateLimited = rateLimited;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getBaselineMillis() {
+        return baselineMillis;
+    }
+
+    public long getRateLimited() {
+        return rateLimited;
+    }
+}
@@ -0,0 +1,62 @@
+package com.productstore.service.limit;
+
+import com.productstore.service.bulkhead.BulkheadInterceptor;
+import com.productstore.service.bulkhead.Lane;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Rejects excess requests before any work is done for them: first by the
+ * client's rate limit (429), then by the adaptive concurrency limit (503).
+ *
+ * <p>Bulk-lane requests are long by nature and already capped by their bulkhead,
+ * so they neither count against the adaptive limit nor feed it latency samples.
+ * A response of 503 or 504, whatever produced it, counts as a dropped request.
+ */
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = LoadSheddingInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveLimiter limiter;
+    private final ClientRateLimiter rateLimiter;
+    private final ClientIdentity clients;
+
+    public LoadSheddingInterceptor(AdaptiveLimiter limiter, ClientRateLimiter rateLimiter, ClientIdentity clients) {
+        this.limiter = limiter;
+        this.rateLimiter = rateLimiter;
+        this.clients = clients;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        rateLimiter.acquire(clients.of(request));
+        if (BulkheadInterceptor.laneFor(request, handler) != Lane.BULK) {
+            request.setAttribute(STARTED_AT, limiter.acquire());
+        }
+        return true;
+    }
+
+    // Streaming responses outlive the handler; their duration is not a capacity signal
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(STARTED_AT) != null) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Long startedAt = (Long) request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            request.removeAttribute(STARTED_AT);
+            int status = response.getStatus();
+            limiter.complete(startedAt, status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status == HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+    }
+}
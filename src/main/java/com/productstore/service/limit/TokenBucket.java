@@ -0,0 +1,35 @@
+package com.productstore.service.limit;
+
+/**
+ * Classic token bucket: holds up to {@code burst} tokens and refills at
+ * {@code ratePerSecond}. Refill is computed lazily on each call.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double burst, long nowNanos) {
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = nowNanos;
+    }
+
+    // Takes one token; returns 0 on success, otherwise the nanoseconds until one is available
+    public synchronized long tryTake(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    private void refill(long nowNanos) {
+        tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * ratePerNano);
+        refilledAt = nowNanos;
+    }
+}
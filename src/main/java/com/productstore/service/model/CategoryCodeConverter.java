@@ -0,0 +1,19 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores a category as its fixed code in a smallint column
+@Converter
+public class CategoryCodeConverter implements AttributeConverter<Product.Category, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Product.Category category) {
+        return category == null ? null : category.getCode();
+    }
+
+    @Override
+    public Product.Category convertToEntityAttribute(Short code) {
+        return code == null ? null : Product.Category.fromCode(code);
+    }
+}
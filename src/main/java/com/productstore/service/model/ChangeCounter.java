@@ -0,0 +1,42 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+// Last change sequence number handed out; every writer takes the next one from this row
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter {
+
+    // The table holds a single row
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id = ID;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Default constructor
+    public ChangeCounter() {
+    }
+
+    public ChangeCounter(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
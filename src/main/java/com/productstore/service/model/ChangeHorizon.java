@@ -0,0 +1,42 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+// Highest change sequence whose tombstones have been purged; older sync tokens are no longer valid
+@Entity
+@Table(name = "change_horizon")
+public class ChangeHorizon {
+
+    // The table holds a single row
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id = ID;
+
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+
+    // Default constructor
+    public ChangeHorizon() {
+    }
+
+    public ChangeHorizon(long purgedThrough) {
+        this.purgedThrough = purgedThrough;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getPurgedThrough() {
+        return purgedThrough;
+    }
+
+    public void setPurgedThrough(long purgedThrough) {
+        this.purgedThrough = purgedThrough;
+    }
+}
@@ -0,0 +1,83 @@
+package com.productstore.service.model;
+
+import com.productstore.service.event.ProductChangedEvent;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// A product change waiting in the outbox until the relay has handed it to the sink
+@Entity
+@Table(name = "product_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private ProductChangedEvent.Type eventType;
+
+    // JSON of the product after the change; null for deletions
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Default constructor
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Long productId, ProductChangedEvent.Type eventType, String payload, Instant createdAt) {
+        this.productId = productId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public ProductChangedEvent.Type getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(ProductChangedEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
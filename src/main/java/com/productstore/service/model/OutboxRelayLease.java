@@ -0,0 +1,51 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Which node runs the outbox relay, and until when; another node may take over once it has expired
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    // The table holds a single row
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id = ID;
+
+    @Column(nullable = false, length = 36)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Default constructor
+    public OutboxRelayLease() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
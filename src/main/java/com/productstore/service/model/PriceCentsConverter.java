@@ -0,0 +1,22 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Stores a price as a whole number of cents; reads come back with two decimal places
+@Converter
+public class PriceCentsConverter implements AttributeConverter<BigDecimal, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(BigDecimal price) {
+        return price == null ? null : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @Override
+    public BigDecimal convertToEntityAttribute(Long cents) {
+        return cents == null ? null : BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -1,51 +1,138 @@
 package com.productstore.service.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.productstore.service.shard.ShardedId;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
+// Indexes match the filters and sort orders of listings, so ORDER BY ... LIMIT stops after the first rows.
+// Price is stored as bigint cents and category as a smallint code, which keeps rows and these indexes narrow
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name", columnList = "name"),
+        @Index(name = "idx_products_price", columnList = "price_cents"),
+        @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_products_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_products_available_price", columnList = "available, price_cents"),
+        @Index(name = "idx_products_category_available_price", columnList = "category, available, price_cents")
+})
 public class Product {
 
+    // Second-level cache region, used when product.entity-cache.enabled is set
+    public static final String CACHE_REGION = "products";
+
+    public static final int NAME_LENGTH = 100;
+    public static final int DESCRIPTION_LENGTH = 255;
+
+    // Identity column on a single database, allocated ids when sharded. Unsharded, the generator
+    // leaves the id to the database on insert exactly as GenerationType.IDENTITY did, and the column
+    // definition is the DDL Hibernate emits for that on PostgreSQL and H2; it is declared explicitly
+    // only because Hibernate emits identity DDL for its own identity generator alone
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
+    @Column(columnDefinition = "bigint generated by default as identity")
     private Long id;
 
     @NotBlank(message = "Name cannot be blank")
-    @Column(nullable = false)
+    @Size(max = NAME_LENGTH, message = "Name cannot be longer than " + NAME_LENGTH + " characters")
+    @Column(nullable = false, length = NAME_LENGTH)
     private String name;
 
     @NotBlank(message = "Description cannot be blank")
-    @Column(nullable = false)
+    @Size(max = DESCRIPTION_LENGTH,
+            message = "Description cannot be longer than " + DESCRIPTION_LENGTH + " characters")
+    @Column(nullable = false, length = DESCRIPTION_LENGTH)
     private String description;
 
+    // Rounded to whole cents when written, as the numeric(38,2) column it replaces did
     @NotNull(message = "Price cannot be null")
-    @Column(nullable = false)
+    @Convert(converter = PriceCentsConverter.class)
+    @Column(name = "price_cents", nullable = false)
     private BigDecimal price;
 
     @Column(nullable = false)
     private Boolean available = true;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = CategoryCodeConverter.class)
     @Column(nullable = false)
     private Category category = Category.UNKNOWN;
 
+    // Initial quantity on create; afterwards changed only through the stock ledger
+    @Min(value = 0, message = "Stock cannot be negative")
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long stock = 0L;
+
+    // Set by Hibernate on every insert and update
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    // Position of the last write in the change feed; assigned by the product service
+    @Column(name = "change_seq")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeSeq;
+
+    // The code is what the database stores; new categories take the next unused code, never the position
     public enum Category {
-        UNKNOWN, 
-        CLOTHS, 
-        FOOD, 
-        HOUSEWARES, 
-        AUTOMOTIVE, 
-        TOOLS
+        UNKNOWN(0),
+        CLOTHS(1),
+        FOOD(2),
+        HOUSEWARES(3),
+        AUTOMOTIVE(4),
+        TOOLS(5);
+
+        private final short code;
+
+        Category(int code) {
+            this.code = (short) code;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        public static Category fromCode(short code) {
+            for (Category category : values()) {
+                if (category.code == code) {
+                    return category;
+                }
+            }
+            throw new IllegalArgumentException("Unknown category code " + code);
+        }
     }
 
     // Default constructor
     public Product() {
     }
 
+    // Copy constructor, used to hand out detached snapshots
+    public Product(Product source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.description = source.description;
+        this.price = source.price;
+        this.available = source.available;
+        this.category = source.category;
+        this.stock = source.stock;
+        this.updatedAt = source.updatedAt;
+        this.changeSeq = source.changeSeq;
+    }
+
    
 
     // Getters and Setters
@@ -97,6 +184,30 @@ public class Product {
         this.category = category;
     }
 
+    public Long getStock() {
+        return stock;
+    }
+
+    public void setStock(Long stock) {
+        this.stock = stock;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     @Override
     public String toString() {
         return "Product{" +
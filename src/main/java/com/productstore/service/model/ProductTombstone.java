@@ -0,0 +1,56 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Marks a deleted product in the change feed until it is older than the retention period
+@Entity
+@Table(name = "product_tombstones", indexes = @Index(name = "idx_product_tombstones_change_seq",
+        columnList = "change_seq"))
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    // Default constructor
+    public ProductTombstone() {
+    }
+
+    public ProductTombstone(Long productId, long changeSeq, Instant deletedAt) {
+        this.productId = productId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
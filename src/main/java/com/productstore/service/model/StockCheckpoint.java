@@ -0,0 +1,41 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+// Highest stock journal sequence number of one node already applied to its leases
+@Entity
+@Table(name = "stock_checkpoints")
+public class StockCheckpoint {
+
+    @Id
+    @Column(name = "node_id", length = 36)
+    private String nodeId;
+
+    @Column(name = "applied_seq", nullable = false)
+    private long appliedSeq;
+
+    // Default constructor
+    public StockCheckpoint() {
+    }
+
+    public StockCheckpoint(String nodeId, long appliedSeq) {
+        this.nodeId = nodeId;
+        this.appliedSeq = appliedSeq;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    public void setAppliedSeq(long appliedSeq) {
+        this.appliedSeq = appliedSeq;
+    }
+}
@@ -0,0 +1,90 @@
+package com.productstore.service.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Units of a product taken out of its pooled stock and held by one node for local reservations
+@Entity
+@Table(name = "stock_leases", indexes = @Index(name = "idx_stock_leases_product_id", columnList = "product_id"))
+@IdClass(StockLease.Key.class)
+public class StockLease {
+
+    @Id
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private long units;
+
+    // Default constructor
+    public StockLease() {
+    }
+
+    public StockLease(String nodeId, Long productId, long units) {
+        this.nodeId = nodeId;
+        this.productId = productId;
+        this.units = units;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    // Composite primary key: one lease per node and product
+    public static class Key implements Serializable {
+
+        private String nodeId;
+        private Long productId;
+
+        public Key() {
+        }
+
+        public Key(String nodeId, Long productId) {
+            this.nodeId = nodeId;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(nodeId, key.nodeId) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, productId);
+        }
+    }
+}
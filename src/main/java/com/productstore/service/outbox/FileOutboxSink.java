@@ -0,0 +1,53 @@
+package com.productstore.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends messages to a file as JSON lines. A batch is written with one write
+ * and forced to stable storage before {@link #publish} returns, so a message is
+ * only removed from the outbox once it is durable in the file.
+ */
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+    public FileOutboxSink(Path path, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        buffer.reset();
+        for (OutboxMessage message : messages) {
+            buffer.write(objectMapper.writeValueAsBytes(message));
+            buffer.write('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.productstore.service.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps published messages in memory, for tests and local runs
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
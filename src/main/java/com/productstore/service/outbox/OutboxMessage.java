@@ -0,0 +1,53 @@
+package com.productstore.service.outbox;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.productstore.service.event.ProductChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * One product change as handed to an {@link OutboxSink}. The id increases with
+ * every change written, and a consumer that sees an id again can skip it, since
+ * delivery is at least once. {@code product} is the product's JSON after the
+ * change and is {@code null} for deletions.
+ */
+public class OutboxMessage {
+
+    private final long id;
+    private final Long productId;
+    private final ProductChangedEvent.Type type;
+    private final Instant createdAt;
+    private final String product;
+
+    public OutboxMessage(long id, Long productId, ProductChangedEvent.Type type, Instant createdAt, String product) {
+        this.id = id;
+        this.productId = productId;
+        this.type = type;
+        this.createdAt = createdAt;
+        this.product = product;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ProductChangedEvent.Type getType() {
+        return type;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    // Already JSON, so it is embedded as is rather than as a string
+    @JsonRawValue
+    @JsonProperty("product")
+    public String getProduct() {
+        return product;
+    }
+}
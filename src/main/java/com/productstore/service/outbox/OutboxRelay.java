@@ -0,0 +1,194 @@
+package com.productstore.service.outbox;
+
+import com.productstore.service.model.OutboxEvent;
+import com.productstore.service.model.OutboxRelayLease;
+import com.productstore.service.repository.OutboxEventRepository;
+import com.productstore.service.repository.OutboxRelayLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves product changes from the outbox to the {@link OutboxSink}.
+ *
+ * <p>A single relay thread reads the oldest pending events, publishes them as one
+ * batch and deletes them once the sink has accepted them. If the sink fails, the
+ * batch stays where it is and the same events are offered again after the poll
+ * interval, so nothing overtakes an undelivered change. A crash between publish
+ * and delete delivers the batch again: delivery is at least once. The thread is
+ * woken after each committed write and otherwise polls, which also picks up events
+ * written by other nodes.
+ *
+ * <p>Every node may run the relay, but only the holder of the lease row in
+ * {@code outbox_relay_lease} publishes; the others stand by. The holder extends the
+ * lease before each batch and gives it up on shutdown, and a standby takes over
+ * once it has expired, so a crashed holder stalls the outbox for at most the lease
+ * time. A holder stuck in one publish for longer than that may be overtaken, which
+ * delivers that batch twice; the lease time has to exceed any clock skew between
+ * nodes.
+ */
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final OutboxRelayLeaseRepository leaseRepository;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Duration leaseTime;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Semaphore wakeups = new Semaphore(0);
+    private final Thread relay = new Thread(this::run, "outbox-relay");
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile long lagMillis;
+    private volatile boolean leaseHeld;
+    private volatile boolean running = true;
+
+    public OutboxRelay(OutboxEventRepository repository, OutboxRelayLeaseRepository leaseRepository, OutboxSink sink,
+                       int batchSize, Duration pollInterval, Duration leaseTime) {
+        this.repository = repository;
+        this.leaseRepository = leaseRepository;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.leaseTime = leaseTime;
+        relay.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        relay.start();
+    }
+
+    public void wake() {
+        wakeups.release();
+    }
+
+    /**
+     * Publishes and removes one batch of pending events, returning how many; none
+     * while another node holds the lease. Runs on the relay thread; callers
+     * elsewhere are serialized with it.
+     */
+    public synchronized int relay() {
+        leaseHeld = holdLease();
+        if (!leaseHeld) {
+            return 0;
+        }
+        List<OutboxEvent> events = repository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> messages = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            messages.add(new OutboxMessage(event.getId(), event.getProductId(), event.getEventType(),
+                    event.getCreatedAt(), event.getPayload()));
+            ids.add(event.getId());
+        }
+        try {
+            sink.publish(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish " + messages.size() + " outbox messages", e);
+        }
+        repository.deleteByIds(ids);
+        published.addAndGet(messages.size());
+        batches.incrementAndGet();
+        lagMillis = Duration.between(events.get(events.size() - 1).getCreatedAt(), Instant.now()).toMillis();
+        return messages.size();
+    }
+
+    public OutboxStats stats() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long count = published.get();
+        return new OutboxStats(count, batches.get(), failures.get(), repository.count(),
+                seconds > 0 ? count / seconds : 0, lagMillis, leaseHeld);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        wakeups.release();
+        relay.join(TimeUnit.SECONDS.toMillis(10));
+        if (leaseHeld) {
+            try {
+                leaseRepository.release(OutboxRelayLease.ID, nodeId, Instant.now());
+            } catch (DataAccessException e) {
+                logger.warn("Could not release the outbox relay lease; it expires on its own", e);
+            }
+        }
+    }
+
+    // Extends or takes over the lease, creating it on first use
+    private boolean holdLease() {
+        Instant now = Instant.now();
+        Instant until = now.plus(leaseTime);
+        if (leaseRepository.acquire(OutboxRelayLease.ID, nodeId, now, until) > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(OutboxRelayLease.ID)) {
+            return false;
+        }
+        try {
+            return leaseRepository.create(OutboxRelayLease.ID, nodeId, until) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+            return false;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            // Wakeups from here on belong to writes this pass may not see
+            wakeups.drainPermits();
+            try {
+                if (relay() == batchSize) {
+                    continue;
+                }
+                wakeups.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                logger.warn("Outbox relay failed, will retry", e);
+                // Later commits do not shorten the wait, so a failing sink is not retried on every write
+                if (!pause()) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pollIntervalMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.productstore.service.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of relayed product changes. Messages arrive in outbox order and
+ * {@link #publish} returns only once they are delivered. When it throws, the
+ * whole batch stays in the outbox and is offered again, so a sink can see a
+ * message more than once but never sees a later change of a product before an
+ * earlier one.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,57 @@
+package com.productstore.service.outbox;
+
+/**
+ * Progress of the outbox relay. {@code lagMillis} is the age of the newest
+ * message of the last published batch when it was delivered; {@code leaseHeld}
+ * tells whether this node is the one publishing.
+ */
+public class OutboxStats {
+
+    private final long published;
+    private final long batches;
+    private final long failures;
+    private final long pending;
+    private final double publishedPerSecond;
+    private final long lagMillis;
+    private final boolean leaseHeld;
+
+    public OutboxStats(long published, long batches, long failures, long pending, double publishedPerSecond,
+                       long lagMillis, boolean leaseHeld) {
+        this.published = published;
+        this.batches = batches;
+        this.failures = failures;
+        this.pending = pending;
+        this.publishedPerSecond = publishedPerSecond;
+        this.lagMillis = lagMillis;
+        this.leaseHeld = leaseHeld;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    // Average since the relay started
+    public double getPublishedPerSecond() {
+        return publishedPerSecond;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isLeaseHeld() {
+        return leaseHeld;
+    }
+}
@@ -0,0 +1,65 @@
+package com.productstore.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.OutboxEvent;
+import com.productstore.service.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * Records every product change in the outbox as part of the write itself. The
+ * listener runs synchronously inside the writing transaction, so the outbox row
+ * commits or rolls back together with the product, and the request only pays
+ * for one more insert. The relay is woken once the transaction has committed.
+ *
+ * <p>Pending product changes are flushed before the outbox insert. The product
+ * row is then locked by the time the outbox id is assigned, so a concurrent write
+ * of the same product gets its id only after this transaction ends, and outbox
+ * order matches commit order for each product.
+ */
+public class OutboxWriter {
+
+    private final EntityManager entityManager;
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+
+    // The relay is null on nodes that only write
+    public OutboxWriter(EntityManager entityManager, OutboxEventRepository repository, ObjectMapper objectMapper,
+                        OutboxRelay relay) {
+        this.entityManager = entityManager;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    @EventListener
+    public void record(ProductChangedEvent event) {
+        String payload = null;
+        if (event.getCurrent() != null) {
+            try {
+                payload = objectMapper.writeValueAsString(event.getCurrent());
+            } catch (JsonProcessingException e) {
+                // Failing the write is better than losing its change event
+                throw new IllegalStateException("Could not serialize product " + event.getProductId(), e);
+            }
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+        repository.save(new OutboxEvent(event.getProductId(), event.getType(), payload, Instant.now()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(ProductChangedEvent event) {
+        if (relay != null) {
+            relay.wake();
+        }
+    }
+}
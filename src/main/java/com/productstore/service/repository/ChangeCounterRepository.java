@@ -0,0 +1,23 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.ChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, Long> {
+
+    // Moves the counter on and keeps its row locked until the transaction ends; zero rows means no counter yet
+    @Modifying
+    @Query("update ChangeCounter c set c.lastSeq = c.lastSeq + :delta where c.id = :id")
+    int advance(@Param("id") Long id, @Param("delta") long delta);
+
+    // The committed value, or this transaction's own after it advanced the counter
+    @Query("select c.lastSeq from ChangeCounter c where c.id = :id")
+    Optional<Long> findLastSeq(@Param("id") Long id);
+}
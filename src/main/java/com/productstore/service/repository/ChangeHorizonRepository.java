@@ -0,0 +1,9 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.ChangeHorizon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeHorizonRepository extends JpaRepository<ChangeHorizon, Long> {
+}
@@ -0,0 +1,26 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The oldest pending events, in the order they were written
+    List<OutboxEvent> findByOrderByIdAsc(Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,42 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.OutboxRelayLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+@Transactional(readOnly = true)
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, Long> {
+
+    // Extends the lease if the owner holds it, or takes it over once expired; zero rows means another node holds it
+    @Transactional
+    @Modifying
+    @Query("update OutboxRelayLease l set l.owner = :owner, l.expiresAt = :until "
+            + "where l.id = :id and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now,
+                @Param("until") Instant until);
+
+    // Creates the lease for its first owner; fails on the primary key if another node created it meanwhile.
+    // The declared table keeps Hibernate from invalidating every cached entity for a native statement
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_relay_lease"))
+    @Query(value = "insert into outbox_relay_lease (id, owner, expires_at) values (:id, :owner, :until)",
+            nativeQuery = true)
+    int create(@Param("id") Long id, @Param("owner") String owner, @Param("until") Instant until);
+
+    // Lets another node take over at once instead of after the lease expires
+    @Transactional
+    @Modifying
+    @Query("update OutboxRelayLease l set l.expiresAt = :now where l.id = :id and l.owner = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,11 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.Product;
+
+import java.util.List;
+
+public interface ProductMultiLoadRepository {
+
+    // Products with the given ids, in no particular order; missing ids are skipped
+    List<Product> multiLoad(List<Long> ids);
+}
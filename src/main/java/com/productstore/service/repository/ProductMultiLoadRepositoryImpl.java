@@ -0,0 +1,37 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Loads products by id through the session rather than an IN query, so ids already
+ * in the persistence context or the second-level cache are not fetched again; only
+ * the rest go to the database, as one IN list.
+ */
+public class ProductMultiLoadRepositoryImpl implements ProductMultiLoadRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductMultiLoadRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> multiLoad(List<Long> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        // Multi-loads skip the second-level cache unless a cache mode is given
+        return session.byMultipleIds(Product.class)
+                .with(session.getCacheMode())
+                .withBatchSize(ids.size())
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,24 +1,67 @@
 package com.productstore.service.repository;
 
 import com.productstore.service.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
+// Queries run read-only unless called from a write transaction
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+@Transactional(readOnly = true)
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductMultiLoadRepository, ProductStockRepository {
     
     // Find products by name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Product> findByName(String name);
     
     // Find products by price
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Product> findByPrice(BigDecimal price);
     
     // Find products by availability
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Product> findByAvailable(Boolean available);
     
     // Find products by category
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Product> findByCategory(Product.Category category);
-}
\ No newline at end of file
+
+    // Products written in the half-open sequence range (since, upTo], oldest first
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(
+            long since, long upTo, Limit limit);
+
+    @Query("select coalesce(max(p.changeSeq), 0) from Product p")
+    long findMaxChangeSeq();
+
+    @Query("select coalesce(max(p.id), 0) from Product p")
+    long findMaxId();
+
+    // Give rows written before the change feed existed distinct sequence numbers above base. Native SQL,
+    // as HQL arithmetic on the id would cast to its column definition, which is not a plain type
+    @Transactional
+    @Modifying
+    @Query(value = "update products set change_seq = id + :base where change_seq is null", nativeQuery = true)
+    int backfillChangeSeq(@Param("base") long base);
+
+    // Read the persisted stock quantity of one product
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Long> findStockById(@Param("id") Long id);
+
+    // Read the pooled stock and lock the row until the transaction ends, so leases are granted one at a time
+    @Query(value = "select stock from products where id = :id for update", nativeQuery = true)
+    Optional<Long> lockStockById(@Param("id") Long id);
+}
@@ -0,0 +1,26 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria for {@link ProductRepository}'s specification queries. A {@code null}
+ * argument matches every product, so filters compose without null checks.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasName(String name) {
+        return (root, query, cb) -> name == null ? null : cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<Product> inCategory(Product.Category category) {
+        return (root, query, cb) -> category == null ? null : cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> isAvailable(Boolean available) {
+        return (root, query, cb) -> available == null ? null : cb.equal(root.get("available"), available);
+    }
+}
@@ -0,0 +1,7 @@
+package com.productstore.service.repository;
+
+public interface ProductStockRepository {
+
+    // Apply a stock change in place, without loading or locking the entity beforehand
+    int addStock(Long id, long delta);
+}
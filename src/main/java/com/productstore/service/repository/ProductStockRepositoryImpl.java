@@ -0,0 +1,59 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Changes the pooled stock of one product with a native update. A bulk HQL update
+ * of {@link Product} would make Hibernate drop the whole second-level product
+ * region on every stock movement; the update instead declares a query space no
+ * entity maps to, and only the changed product is evicted, once the transaction
+ * has ended, so no other transaction can cache the old quantity in between.
+ */
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // Not a table of any entity, so the update invalidates no entity region
+    private static final String STOCK_QUERY_SPACE = "product_stock";
+
+    private final EntityManager entityManager;
+
+    public ProductStockRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int addStock(Long id, long delta) {
+        int updated = entityManager.createNativeQuery("update products set stock = stock + :delta where id = :id")
+                .setParameter("delta", delta)
+                .setParameter("id", id)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .executeUpdate();
+        if (updated > 0) {
+            evictAfterCompletion(id);
+        }
+        return updated;
+    }
+
+    private void evictAfterCompletion(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(id);
+            }
+        });
+    }
+
+    private void evict(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Product.class, id);
+    }
+}
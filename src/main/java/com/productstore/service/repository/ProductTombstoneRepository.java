@@ -0,0 +1,33 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.ProductTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    // Deletions in the half-open sequence range (since, upTo], oldest first
+    List<ProductTombstone> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(
+            long since, long upTo, Limit limit);
+
+    @Query("select coalesce(max(t.changeSeq), 0) from ProductTombstone t")
+    long findMaxChangeSeq();
+
+    @Query("select coalesce(max(t.changeSeq), 0) from ProductTombstone t where t.deletedAt < :before")
+    long findMaxChangeSeqDeletedBefore(@Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductTombstone t where t.changeSeq <= :upTo")
+    int deleteThrough(@Param("upTo") long upTo);
+}
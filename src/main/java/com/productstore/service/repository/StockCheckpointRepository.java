@@ -0,0 +1,9 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, String> {
+}
@@ -0,0 +1,33 @@
+package com.productstore.service.repository;
+
+import com.productstore.service.model.StockLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockLeaseRepository extends JpaRepository<StockLease, StockLease.Key> {
+
+    List<StockLease> findByNodeId(String nodeId);
+
+    // Units of the product held by all nodes together
+    @Query("select coalesce(sum(l.units), 0) from StockLease l where l.productId = :productId")
+    long sumUnitsByProductId(@Param("productId") Long productId);
+
+    // Change a lease in place; zero rows means the node holds no lease for the product yet
+    @Modifying
+    @Query("update StockLease l set l.units = l.units + :delta where l.nodeId = :nodeId and l.productId = :productId")
+    int addUnits(@Param("nodeId") String nodeId, @Param("productId") Long productId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("delete from StockLease l where l.nodeId = :nodeId")
+    int deleteByNodeId(@Param("nodeId") String nodeId);
+
+    @Modifying
+    @Query("delete from StockLease l where l.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
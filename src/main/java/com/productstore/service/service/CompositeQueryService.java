@@ -0,0 +1,225 @@
+package com.productstore.service.service;
+
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.exception.DeadlineExceededException;
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.exception.ServiceOverloadedException;
+import com.productstore.service.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sub-queries of one composite request concurrently, each on its own
+ * virtual thread, and collects their results under their keys in request order.
+ *
+ * <p>The sub-queries are scoped to the request: they run in an executor that
+ * only lives for the call, so none can outlive it. They share the request's
+ * deadline; whatever has not finished when it passes, or when the calling
+ * thread is interrupted, is cancelled and reported as 504. A failing sub-query
+ * is reported with its own status and does not affect the others.
+ *
+ * <p>Composite requests run in the interactive lane, so their sub-queries may not
+ * take more than that lane's share of the connection pool: all requests together
+ * run at most {@code max-parallel} sub-queries at a time, by default the
+ * connections the write and bulk lanes leave over. Category and availability
+ * sub-queries are bounded like TOP ones, so none returns a whole listing.
+ */
+@Service
+public class CompositeQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompositeQueryService.class);
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_IDS = 1000;
+
+    private final ProductService productService;
+    private final int maxSubQueries;
+    private final Semaphore permits;
+    private final Duration defaultTimeout;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("composite-query-", 0).factory();
+
+    @Autowired
+    public CompositeQueryService(ProductService productService,
+                                 @Value("${product.query.max-sub-queries:8}") int maxSubQueries,
+                                 @Value("${product.query.max-parallel:0}") int maxParallel,
+                                 @Value("${product.query.timeout:PT5S}") Duration defaultTimeout,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                 @Value("${product.bulkhead.write.max-concurrent:6}") int writeLane,
+                                 @Value("${product.bulkhead.bulk.max-concurrent:2}") int bulkLane) {
+        this(productService, maxSubQueries,
+                maxParallel > 0 ? maxParallel : Math.max(1, poolSize - writeLane - bulkLane), defaultTimeout);
+    }
+
+    CompositeQueryService(ProductService productService, int maxSubQueries, int maxParallel,
+                          Duration defaultTimeout) {
+        this.productService = productService;
+        this.maxSubQueries = maxSubQueries;
+        this.permits = new Semaphore(maxParallel, true);
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Map<String, SubQueryResult> execute(List<SubQuery> queries) {
+        validate(queries);
+        boolean ownDeadline = Deadline.current() == null;
+        if (ownDeadline) {
+            Deadline.bind(Deadline.after(defaultTimeout));
+        }
+        try {
+            Deadline deadline = Deadline.current();
+            Map<String, SubQueryResult> results = new LinkedHashMap<>();
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+                List<Future<Object>> futures = new ArrayList<>(queries.size());
+                for (SubQuery query : queries) {
+                    futures.add(executor.submit(Deadline.propagate(() -> runWithPermit(query, deadline))));
+                }
+                // Once the deadline has passed every remaining wait times out at once and cancels its sub-query
+                for (int i = 0; i < queries.size(); i++) {
+                    results.put(queries.get(i).getKey(), await(futures.get(i), deadline));
+                }
+            }
+            return results;
+        } finally {
+            if (ownDeadline) {
+                Deadline.clear();
+            }
+        }
+    }
+
+    private SubQueryResult await(Future<Object> future, Deadline deadline) {
+        try {
+            return SubQueryResult.ok(future.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException | CancellationException e) {
+            future.cancel(true);
+            return SubQueryResult.failed(HttpStatus.GATEWAY_TIMEOUT.value(), "Cancelled: request deadline exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return SubQueryResult.failed(HttpStatus.SERVICE_UNAVAILABLE.value(), "Cancelled: request was aborted");
+        } catch (ExecutionException e) {
+            return failure(e.getCause());
+        }
+    }
+
+    // Waits for a permit shared by every composite request, but never past this request's deadline
+    private Object runWithPermit(SubQuery query, Deadline deadline) throws InterruptedException {
+        if (!permits.tryAcquire(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+        try {
+            return run(query);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Object run(SubQuery query) {
+        switch (query.getType()) {
+            case BY_ID:
+                return productService.findById(require(query.getId(), query, "id"));
+            case BY_IDS:
+                List<Long> ids = require(query.getIds(), query, "ids");
+                if (ids.size() > MAX_IDS) {
+                    throw new DataValidationException("At most " + MAX_IDS + " ids can be requested at once");
+                }
+                return productService.findAllByIds(ids);
+            case BY_NAME:
+                return productService.findByName(require(query.getName(), query, "name"));
+            case BY_CATEGORY:
+                return top(query, null, parseCategory(require(query.getCategory(), query, "category")), null);
+            case BY_AVAILABILITY:
+                return top(query, null, null, require(query.getAvailable(), query, "available"));
+            case TOP:
+                return top(query, query.getName(),
+                        query.getCategory() != null ? parseCategory(query.getCategory()) : null,
+                        query.getAvailable());
+            default:
+                throw new DataValidationException("Unsupported sub-query type " + query.getType());
+        }
+    }
+
+    // The first rows matching the filters, in the sub-query's sort order; limit defaults to 100
+    private List<Product> top(SubQuery query, String name, Product.Category category, Boolean available) {
+        int limit = query.getLimit() != null ? query.getLimit() : 100;
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new DataValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return productService.findTop(new ProductQuery(name, category, available,
+                ProductQuery.parseSort(query.getSort()), limit));
+    }
+
+    private void validate(List<SubQuery> queries) {
+        if (queries == null || queries.isEmpty()) {
+            throw new DataValidationException("At least one sub-query is required");
+        }
+        if (queries.size() > maxSubQueries) {
+            throw new DataValidationException("At most " + maxSubQueries + " sub-queries are allowed");
+        }
+        Set<String> keys = new HashSet<>();
+        for (SubQuery query : queries) {
+            if (query.getKey() == null || query.getKey().isBlank()) {
+                throw new DataValidationException("Every sub-query needs a key");
+            }
+            if (!keys.add(query.getKey())) {
+                throw new DataValidationException("Duplicate sub-query key '" + query.getKey() + "'");
+            }
+            if (query.getType() == null) {
+                throw new DataValidationException("Sub-query '" + query.getKey() + "' needs a type");
+            }
+        }
+    }
+
+    private SubQueryResult failure(Throwable cause) {
+        if (cause instanceof ProductNotFoundException) {
+            return SubQueryResult.failed(HttpStatus.NOT_FOUND.value(), cause.getMessage());
+        }
+        if (cause instanceof DataValidationException) {
+            return SubQueryResult.failed(HttpStatus.BAD_REQUEST.value(), cause.getMessage());
+        }
+        if (cause instanceof DeadlineExceededException) {
+            return SubQueryResult.failed(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+        }
+        if (cause instanceof ServiceOverloadedException) {
+            return SubQueryResult.failed(HttpStatus.SERVICE_UNAVAILABLE.value(), cause.getMessage());
+        }
+        logger.error("Sub-query failed", cause);
+        return SubQueryResult.failed(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Sub-query failed");
+    }
+
+    private static <T> T require(T value, SubQuery query, String field) {
+        if (value == null) {
+            throw new DataValidationException("Sub-query '" + query.getKey() + "' of type " + query.getType()
+                    + " needs " + field);
+        }
+        return value;
+    }
+
+    private static Product.Category parseCategory(String category) {
+        try {
+            return Product.Category.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DataValidationException("Unknown category '" + category + "'");
+        }
+    }
+}
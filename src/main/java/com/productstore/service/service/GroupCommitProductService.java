@@ -0,0 +1,302 @@
+package com.productstore.service.service;
+
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.exception.DeadlineExceededException;
+import com.productstore.service.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent single-product creates and updates into shared transactions.
+ *
+ * <p>Each call is queued and its thread waits. A committer thread takes the first
+ * queued write, collects whatever else arrives within {@code max-wait} (up to
+ * {@code max-batch}), and runs them all in one transaction, so the whole group
+ * pays for a single commit and updates go out as one JDBC batch. Failures that
+ * belong to one call, such as an unknown id, are handed back to that caller only.
+ * If the shared transaction itself fails, every write in it is retried in its own
+ * transaction so each caller still gets its own result or error. Reads and bulk
+ * creates go straight to {@link ProductServiceImpl}.
+ *
+ * <p>A caller waits no longer than its request deadline; a write still queued by
+ * then is skipped by the committer. Should the committer thread die, every write
+ * still pending is failed, so no caller is left waiting on it.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "product.write.group-commit.enabled", havingValue = "true")
+public class GroupCommitProductService implements ProductService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitProductService.class);
+
+    // How often a caller without a deadline checks that the committer is still alive
+    private static final long LIVENESS_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ProductServiceImpl delegate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final LinkedTransferQueue<Write<?>> queue = new LinkedTransferQueue<>();
+    private final Thread committer = new Thread(this::runCommitter, "group-commit");
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile boolean running = true;
+
+    @Autowired
+    public GroupCommitProductService(ProductServiceImpl delegate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${product.write.group-commit.max-batch:64}") int maxBatch,
+                                     @Value("${product.write.group-commit.max-wait:500us}") Duration maxWait) {
+        this.delegate = delegate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Each attempt saves a fresh copy, so a rolled back group leaves no id behind on the caller's object
+    @Override
+    public Product create(Product product) {
+        return submit(() -> delegate.create(new Product(product)));
+    }
+
+    @Override
+    public Product update(Long id, Product productDetails) {
+        return submit(() -> delegate.update(id, productDetails));
+    }
+
+    @Override
+    public List<Product> createAll(List<Product> products) {
+        return delegate.createAll(products);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public Product findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public ProductLookup findAllByIds(List<Long> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Product> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public List<Product> findByPrice(BigDecimal price) {
+        return delegate.findByPrice(price);
+    }
+
+    @Override
+    public List<Product> findByAvailability(Boolean available) {
+        return delegate.findByAvailability(available);
+    }
+
+    @Override
+    public List<Product> findByCategory(Product.Category category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findTop(ProductQuery query) {
+        return delegate.findTop(query);
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private <T> T submit(Supplier<T> action) {
+        if (!running) {
+            throw new IllegalStateException("Product writes are shutting down");
+        }
+        Deadline.checkCurrent();
+        Write<T> write = new Write<>(action);
+        queue.add(write);
+        try {
+            return await(write);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        }
+    }
+
+    private <T> T await(Write<T> write) throws ExecutionException {
+        while (true) {
+            long wait = LIVENESS_CHECK_NANOS;
+            if (write.deadline != null) {
+                long remaining = write.deadline.remainingNanos();
+                if (remaining <= 0) {
+                    throw new DeadlineExceededException("Request deadline exceeded waiting for group commit");
+                }
+                wait = Math.min(wait, remaining);
+            }
+            try {
+                return write.result.get(wait, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!committer.isAlive()) {
+                    write.result.completeExceptionally(new IllegalStateException("Group committer has stopped"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for group commit", e);
+            }
+        }
+    }
+
+    private void runCommitter() {
+        List<Write<?>> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Write<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + maxWaitNanos;
+                    while (batch.size() < maxBatch) {
+                        queue.drainTo(batch, maxBatch - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= maxBatch || remaining <= 0) {
+                            break;
+                        }
+                        Write<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException | Error e) {
+                    logger.error("Group committer stopped", e);
+                    batch.forEach(write -> write.result.completeExceptionally(e));
+                    throw e;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            running = false;
+            IllegalStateException stopped = new IllegalStateException("Group committer has stopped");
+            for (Write<?> write = queue.poll(); write != null; write = queue.poll()) {
+                write.result.completeExceptionally(stopped);
+            }
+        }
+    }
+
+    private void commit(List<Write<?>> batch) {
+        batches.incrementAndGet();
+        writes.addAndGet(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(Write::attempt));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                logger.debug("Group commit of {} writes failed, retrying them one by one", batch.size(), e);
+            }
+            for (Write<?> write : batch) {
+                retryAlone(write);
+            }
+            return;
+        }
+        batch.forEach(Write::publish);
+    }
+
+    private void retryAlone(Write<?> write) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write.attempt());
+        } catch (RuntimeException e) {
+            // The write's own exception explains a rollback better than the commit failure it caused
+            write.result.completeExceptionally(write.failure != null ? write.failure : e);
+            return;
+        }
+        write.publish();
+    }
+
+    /**
+     * One queued call. The outcome of an attempt is held back until its transaction
+     * has committed, since a later write in the same group can still roll it back.
+     */
+    private static class Write<T> {
+        private final Supplier<T> action;
+        private final Deadline deadline = Deadline.current();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException failure;
+
+        Write(Supplier<T> action) {
+            this.action = action;
+        }
+
+        // Writes whose caller has already given up are skipped rather than executed
+        void attempt() {
+            value = null;
+            failure = null;
+            try {
+                if (deadline != null) {
+                    deadline.check();
+                }
+                value = action.get();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void publish() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
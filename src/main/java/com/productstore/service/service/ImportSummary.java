@@ -0,0 +1,68 @@
+package com.productstore.service.service;
+
+import java.util.List;
+
+/**
+ * Result of a bulk import: row counts, the first rejected rows with their
+ * reasons, and the observed throughput.
+ */
+public class ImportSummary {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final List<Reject> rejects;
+    private final long elapsedMillis;
+
+    public ImportSummary(long rowsRead, long rowsImported, long rowsRejected,
+                         List<Reject> rejects, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.rejects = rejects;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported * 1000 : rowsImported * 1000 / elapsedMillis;
+    }
+
+    // A rejected input row and why it was rejected
+    public static class Reject {
+        private final long line;
+        private final String message;
+
+        public Reject(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.productstore.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import com.productstore.service.model.Product;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of products from CSV or NDJSON.
+ *
+ * <p>The request body is read on the calling thread and cut into chunks of lines.
+ * A pool of workers parses and validates chunks in parallel, and a single writer
+ * persists the valid rows in large batches, one transaction per batch. Stages are
+ * connected by small bounded queues, so a fast reader blocks instead of buffering
+ * the whole feed and memory stays flat regardless of input size.
+ *
+ * <p>Stages run on one shared pool sized for {@code max-concurrent} imports, and
+ * an import is admitted only while one of those slots is free, so every admitted
+ * import has a thread for each stage and concurrent imports cannot grow the
+ * thread count. Imports beyond the limit are rejected as overload.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    // Number of rejected rows echoed back in the summary
+    private static final int MAX_REPORTED_REJECTS = 100;
+    private static final long QUEUE_POLL_MILLIS = 100;
+
+    private final ProductService productService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+
+    @Autowired
+    public ProductImportService(ProductService productService,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.chunk-size:500}") int chunkSize,
+                                @Value("${product.import.batch-size:2000}") int batchSize,
+                                @Value("${product.import.parallelism:0}") int parallelism,
+                                @Value("${product.import.queue-capacity:4}") int queueCapacity,
+                                @Value("${product.import.max-concurrent:2}") int maxConcurrent) {
+        this.productService = productService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.slots = new Semaphore(maxConcurrent);
+        this.workers = Executors.newFixedThreadPool(maxConcurrent * (this.parallelism + 1),
+                Thread.ofPlatform().name("product-import-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public ImportSummary importProducts(InputStream input, Format format) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many product imports in progress", 1);
+        }
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(format);
+        List<Future<?>> stages = new ArrayList<>();
+        try {
+            // The writer goes first so its failure, not the resulting cancellations, is reported
+            // Stages inherit the request deadline, so the writer's transactions are bounded by it
+            stages.add(workers.submit(Deadline.propagate(() -> {
+                run.write();
+                return null;
+            })));
+            for (int i = 0; i < parallelism; i++) {
+                stages.add(workers.submit(Deadline.propagate(() -> {
+                    run.validate();
+                    return null;
+                })));
+            }
+
+            try {
+                run.read(input);
+            } catch (CancellationException e) {
+                // A downstream stage failed; its exception is rethrown below
+            } catch (IOException | RuntimeException e) {
+                run.aborted = true;
+                throw e;
+            }
+            awaitStages(stages);
+        } finally {
+            // Stages poll the abort flag, so they all return promptly and the slot's threads are free again
+            run.aborted = true;
+            awaitQuietly(stages);
+            slots.release();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        run.rejects.sort(Comparator.comparingLong(ImportSummary.Reject::getLine));
+        ImportSummary summary = new ImportSummary(run.rowsRead.get(), run.rowsImported.get(),
+                run.rowsRejected.get(), run.rejects, elapsedMillis);
+        logger.info("Imported {} of {} products ({} rejected) in {} ms, {} rows/s",
+                summary.getRowsImported(), summary.getRowsRead(), summary.getRowsRejected(),
+                elapsedMillis, summary.getRowsPerSecond());
+        return summary;
+    }
+
+    private void awaitStages(List<Future<?>> stages) {
+        try {
+            for (Future<?> stage : stages) {
+                stage.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing products", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Product import failed", e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(List<Future<?>> stages) {
+        boolean interrupted = false;
+        for (Future<?> stage : stages) {
+            while (true) {
+                try {
+                    stage.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One input line together with its position in the feed
+    private static class InputLine {
+        private final long number;
+        private final String text;
+
+        InputLine(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    /**
+     * State shared by the stages of a single import. Chunks are never empty, so
+     * the empty end-of-input markers can be told apart by identity.
+     */
+    private class ImportRun {
+
+        private final List<InputLine> endOfLines = new ArrayList<>(0);
+        private final List<Product> endOfProducts = new ArrayList<>(0);
+
+        private final Format format;
+        private final BlockingQueue<List<InputLine>> lines = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<List<Product>> products = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<ImportSummary.Reject> rejects = new ArrayList<>();
+        private volatile Map<String, Integer> csvColumns;
+        private volatile boolean aborted;
+
+        ImportRun(Format format) {
+            this.format = format;
+        }
+
+        void read(InputStream input) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            long lineNumber = 0;
+            List<InputLine> chunk = new ArrayList<>(chunkSize);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(text);
+                    continue;
+                }
+                rowsRead.incrementAndGet();
+                chunk.add(new InputLine(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    put(lines, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                put(lines, chunk);
+            }
+            for (int i = 0; i < parallelism; i++) {
+                put(lines, endOfLines);
+            }
+        }
+
+        void validate() throws InterruptedException {
+            try {
+                List<InputLine> chunk;
+                while ((chunk = take(lines)) != endOfLines) {
+                    List<Product> valid = new ArrayList<>(chunk.size());
+                    for (InputLine line : chunk) {
+                        try {
+                            Product product = parse(line.text);
+                            product.setId(null);
+                            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+                            if (violations.isEmpty()) {
+                                valid.add(product);
+                            } else {
+                                reject(line.number, violations.stream()
+                                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                                        .sorted()
+                                        .collect(Collectors.joining(", ")));
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            reject(line.number, e.getMessage());
+                        }
+                    }
+                    if (!valid.isEmpty()) {
+                        put(products, valid);
+                    }
+                }
+                put(products, endOfProducts);
+            } catch (RuntimeException | InterruptedException e) {
+                aborted = true;
+                throw e;
+            }
+        }
+
+        void write() throws InterruptedException {
+            try {
+                int finishedValidators = 0;
+                List<Product> batch = new ArrayList<>(batchSize);
+                while (finishedValidators < parallelism) {
+                    List<Product> chunk = take(products);
+                    if (chunk == endOfProducts) {
+                        finishedValidators++;
+                        continue;
+                    }
+                    batch.addAll(chunk);
+                    if (batch.size() >= batchSize) {
+                        flush(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (RuntimeException | InterruptedException e) {
+                aborted = true;
+                throw e;
+            }
+        }
+
+        private void flush(List<Product> batch) {
+            productService.createAll(batch);
+            rowsImported.addAndGet(batch.size());
+        }
+
+        private void reject(long lineNumber, String message) {
+            rowsRejected.incrementAndGet();
+            synchronized (rejects) {
+                if (rejects.size() < MAX_REPORTED_REJECTS) {
+                    rejects.add(new ImportSummary.Reject(lineNumber, message));
+                }
+            }
+        }
+
+        private Product parse(String text) throws IOException {
+            if (format == Format.NDJSON) {
+                return objectMapper.readValue(text, Product.class);
+            }
+            List<String> fields = splitCsv(text);
+            Product product = new Product();
+            product.setName(csvField(fields, "name"));
+            product.setDescription(csvField(fields, "description"));
+            String price = csvField(fields, "price");
+            product.setPrice(price == null || price.isEmpty() ? null : new BigDecimal(price));
+            String available = csvField(fields, "available");
+            if (available != null && !available.isEmpty()) {
+                product.setAvailable(Boolean.parseBoolean(available));
+            }
+            String category = csvField(fields, "category");
+            if (category != null && !category.isEmpty()) {
+                product.setCategory(Product.Category.valueOf(category.toUpperCase()));
+            }
+            return product;
+        }
+
+        private String csvField(List<String> fields, String column) {
+            Integer index = csvColumns.get(column);
+            return index == null || index >= fields.size() ? null : fields.get(index);
+        }
+
+        private <T> void put(BlockingQueue<T> queue, T item) {
+            try {
+                while (!queue.offer(item, QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (aborted) {
+                        throw new CancellationException("Product import aborted");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Product import interrupted");
+            }
+        }
+
+        private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+            T item;
+            while ((item = queue.poll(QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (aborted) {
+                    throw new CancellationException("Product import aborted");
+                }
+            }
+            return item;
+        }
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : List.of("name", "description", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new DataValidationException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields and "" escapes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,268 @@
+package com.productstore.service.service;
+
+import com.productstore.service.cache.EntityInvalidation;
+import com.productstore.service.cache.InvalidationTransport;
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caches the results of list queries, keyed by the normalized filter.
+ *
+ * <p>Instead of evicting entries on writes, every filter depends on a generation
+ * counter: one per category, one per availability value, and a global one for
+ * unfiltered and name queries. A write bumps only the counters of the categories
+ * and availability values it touched (before and after the change), so updating
+ * a TOOLS product leaves cached FOOD results valid. An entry is served only while
+ * the generation it was loaded under is still current. The generation is read
+ * before the query runs, so a write that races with a load always invalidates it.
+ *
+ * <p>Generations only see this node's writes. When the entity cache's
+ * {@link InvalidationTransport} is configured, each write is also broadcast and
+ * other nodes drop all their entries; independently, every entry expires after
+ * the ttl, which bounds how long a write on another node can go unseen.
+ *
+ * <p>Entries hold detached copies of the loaded rows, never the managed entities
+ * of the session that loaded them, so later changes in that session (open in
+ * view keeps it alive for the whole request) cannot leak into other requests.
+ */
+@Component
+public class ProductListCache {
+
+    /**
+     * A normalized list query. Filters with equal keys return the same rows.
+     */
+    public static final class Filter {
+
+        private enum Kind {
+            ALL,
+            NAME,
+            CATEGORY,
+            AVAILABILITY
+        }
+
+        private final Kind kind;
+        private final String key;
+        private final int index;
+
+        private Filter(Kind kind, String key, int index) {
+            this.kind = kind;
+            this.key = key;
+            this.index = index;
+        }
+
+        public static Filter all() {
+            return new Filter(Kind.ALL, "all", 0);
+        }
+
+        public static Filter name(String name) {
+            return new Filter(Kind.NAME, "name=" + name, 0);
+        }
+
+        public static Filter category(Product.Category category) {
+            return new Filter(Kind.CATEGORY, "category=" + category.name(), category.ordinal());
+        }
+
+        public static Filter availability(boolean available) {
+            return new Filter(Kind.AVAILABILITY, "available=" + available, available ? 1 : 0);
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    // Entity name of list invalidations on the shared transport
+    static final String INVALIDATION_NAME = "product-list";
+
+    private static final class Entry {
+        private final long generation;
+        private final long loadedAt = System.nanoTime();
+        private final List<Product> products;
+        // Built on first multi-get against the unfiltered entry
+        private volatile Map<Long, Product> byId;
+
+        Entry(long generation, List<Product> products) {
+            this.generation = generation;
+            this.products = products;
+        }
+
+        Map<Long, Product> byId() {
+            Map<Long, Product> index = byId;
+            if (index == null) {
+                index = new HashMap<>(products.size() * 4 / 3 + 1);
+                for (Product product : products) {
+                    index.put(product.getId(), product);
+                }
+                byId = index;
+            }
+            return index;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxRowsPerEntry;
+    private final long ttlNanos;
+    private final InvalidationTransport transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Entry> entries;
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final AtomicLongArray categoryGenerations = new AtomicLongArray(Product.Category.values().length);
+    private final AtomicLongArray availabilityGenerations = new AtomicLongArray(2);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public ProductListCache(@Value("${product.list-cache.enabled:true}") boolean enabled,
+                            @Value("${product.list-cache.max-entries:256}") int maxEntries,
+                            @Value("${product.list-cache.max-rows-per-entry:10000}") int maxRowsPerEntry,
+                            @Value("${product.list-cache.ttl:PT30S}") Duration ttl,
+                            ObjectProvider<InvalidationTransport> transport) {
+        this(enabled, maxEntries, maxRowsPerEntry, ttl, transport.getIfAvailable());
+    }
+
+    ProductListCache(boolean enabled, int maxEntries, int maxRowsPerEntry, Duration ttl,
+                     InvalidationTransport transport) {
+        this.enabled = enabled;
+        this.maxRowsPerEntry = maxRowsPerEntry;
+        this.ttlNanos = ttl.toNanos();
+        this.transport = transport;
+        if (transport != null) {
+            transport.subscribe(this::onInvalidation);
+        }
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Returns the cached rows for the filter, or runs the loader and caches its
+     * result. Results larger than the per-entry row limit are not cached.
+     */
+    public List<Product> get(Filter filter, Supplier<List<Product>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long generation = generationOf(filter);
+        Entry entry = entries.get(filter.key);
+        if (isCurrent(entry, generation)) {
+            hits.incrementAndGet();
+            return entry.products;
+        }
+        misses.incrementAndGet();
+        List<Product> products = loader.get();
+        if (products.size() <= maxRowsPerEntry) {
+            products = products.stream().map(Product::new).toList();
+            entries.put(filter.key, new Entry(generation, products));
+        }
+        return products;
+    }
+
+    // Cached rows for the filter if they are current, without loading anything on a miss
+    public List<Product> peek(Filter filter) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(filter.key);
+        if (!isCurrent(entry, generationOf(filter))) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.products;
+    }
+
+    /**
+     * Returns the current unfiltered result indexed by id, or null when it is not
+     * cached or stale. Because it holds every product, an id absent from the index
+     * does not exist and needs no database lookup.
+     */
+    public Map<Long, Product> getAllById() {
+        if (!enabled) {
+            return null;
+        }
+        Filter filter = Filter.all();
+        Entry entry = entries.get(filter.key);
+        if (!isCurrent(entry, generationOf(filter))) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.byId();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump(event.getPrevious());
+        bump(event.getCurrent());
+        globalGeneration.incrementAndGet();
+        if (transport != null) {
+            transport.publish(new EntityInvalidation(nodeId, INVALIDATION_NAME, event.getProductId()));
+        }
+    }
+
+    // A write on another node; its categories are unknown here, so every entry is dropped
+    private void onInvalidation(EntityInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin()) || !INVALIDATION_NAME.equals(invalidation.getEntityName())) {
+            return;
+        }
+        globalGeneration.incrementAndGet();
+        for (int i = 0; i < categoryGenerations.length(); i++) {
+            categoryGenerations.incrementAndGet(i);
+        }
+        for (int i = 0; i < availabilityGenerations.length(); i++) {
+            availabilityGenerations.incrementAndGet(i);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void bump(Product product) {
+        if (product == null) {
+            return;
+        }
+        if (product.getCategory() != null) {
+            categoryGenerations.incrementAndGet(product.getCategory().ordinal());
+        }
+        if (product.getAvailable() != null) {
+            availabilityGenerations.incrementAndGet(product.getAvailable() ? 1 : 0);
+        }
+    }
+
+    private boolean isCurrent(Entry entry, long generation) {
+        return entry != null && entry.generation == generation && System.nanoTime() - entry.loadedAt < ttlNanos;
+    }
+
+    private long generationOf(Filter filter) {
+        switch (filter.kind) {
+            case CATEGORY:
+                return categoryGenerations.get(filter.index);
+            case AVAILABILITY:
+                return availabilityGenerations.get(filter.index);
+            default:
+                return globalGeneration.get();
+        }
+    }
+}
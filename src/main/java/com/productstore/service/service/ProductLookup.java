@@ -0,0 +1,28 @@
+package com.productstore.service.service;
+
+import com.productstore.service.model.Product;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the products that were found, in the order their ids
+ * were requested, and the requested ids that do not exist.
+ */
+public class ProductLookup {
+
+    private final List<Product> products;
+    private final List<Long> missingIds;
+
+    public ProductLookup(List<Product> products, List<Long> missingIds) {
+        this.products = products;
+        this.missingIds = missingIds;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,83 @@
+package com.productstore.service.service;
+
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.model.Product;
+import org.springframework.data.domain.Sort;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A sorted, limited listing: optional name, category and availability filters,
+ * all of which must match, an order and the number of rows wanted.
+ */
+public class ProductQuery {
+
+    // Properties a listing may be ordered by; each one is backed by an index
+    public static final Set<String> SORTABLE = Set.of("id", "name", "price", "updatedAt");
+
+    private final String name;
+    private final Product.Category category;
+    private final Boolean available;
+    private final Sort sort;
+    private final int limit;
+
+    public ProductQuery(String name, Product.Category category, Boolean available, Sort sort, int limit) {
+        this.name = name;
+        this.category = category;
+        this.available = available;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Product.Category getCategory() {
+        return category;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Parses "property" or "property,asc|desc"; no sort means by id
+    public static Sort parseSort(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property) || parts.length > 2) {
+            throw new DataValidationException("sort must be one of " + SORTABLE
+                    + ", optionally followed by ,asc or ,desc");
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new DataValidationException("Unknown sort direction '" + parts[1] + "'"));
+        }
+        return Sort.by(direction, property);
+    }
+
+    public boolean matches(Product product) {
+        return (name == null || name.equals(product.getName()))
+                && (category == null || category == product.getCategory())
+                && (available == null || Objects.equals(available, product.getAvailable()));
+    }
+
+    @Override
+    public String toString() {
+        return "name=" + name + ", category=" + category + ", available=" + available
+                + ", sort=" + sort + ", limit=" + limit;
+    }
+}
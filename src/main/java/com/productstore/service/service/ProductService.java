@@ -6,12 +6,15 @@ import java.util.List;
 
 public interface ProductService {
     Product create(Product product);
+    List<Product> createAll(List<Product> products);
     Product update(Long id, Product productDetails);
     void delete(Long id);
     Product findById(Long id);
+    ProductLookup findAllByIds(List<Long> ids);
     List<Product> findAll();
     List<Product> findByName(String name);
     List<Product> findByPrice(BigDecimal price);
     List<Product> findByAvailability(Boolean available);
     List<Product> findByCategory(Product.Category category);
+    List<Product> findTop(ProductQuery query);
 }
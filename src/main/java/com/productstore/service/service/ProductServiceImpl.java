@@ -1,85 +1,354 @@
 package com.productstore.service.service;
 
+import com.productstore.service.diagnostics.ProductOperationEvent;
+import com.productstore.service.event.ProductChangedEvent;
 import com.productstore.service.model.Product;
+import com.productstore.service.model.ProductTombstone;
 import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.repository.ProductSpecifications;
+import com.productstore.service.repository.ProductTombstoneRepository;
+import com.productstore.service.sync.ChangeSequence;
 import com.productstore.service.exception.ProductNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
 
+/**
+ * Reads run in read-only transactions: Hibernate loads entities without dirty-check
+ * snapshots, never flushes, and the JDBC connection is flagged read-only. Finders
+ * backed by the list cache only join a transaction, so cache hits do not borrow
+ * a connection; their misses run in the repository's read-only transaction.
+ * Writes get a read-write transaction spanning the lookup and the change; a failed
+ * lookup has changed nothing, so it does not doom a surrounding transaction.
+ *
+ * <p>Each call is timed as a {@link ProductOperationEvent} for the flight recorder,
+ * with its filter, row count and whether the list cache answered it, or as failed
+ * when it throws.
+ */
 @Service
+@Transactional(readOnly = true)
 public class ProductServiceImpl implements ProductService {
 
+    // Ids per IN list; keeps statements well below database parameter limits
+    static final int MULTI_GET_CHUNK_SIZE = 500;
+
+    // Sort properties a cached list may be ordered by in memory, see findTop
+    static final Set<String> IN_MEMORY_SORTABLE = Set.of("id", "price");
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductListCache listCache;
+    private final ChangeSequence changeSequence;
+    private final ProductTombstoneRepository tombstoneRepository;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                              ProductListCache listCache, ChangeSequence changeSequence,
+                              ProductTombstoneRepository tombstoneRepository) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.listCache = listCache;
+        this.changeSequence = changeSequence;
+        this.tombstoneRepository = tombstoneRepository;
     }
 
     // Create a new product
     @Override
+    @Transactional
     public Product create(Product product) {
-        return productRepository.save(product);
+        try (ProductOperationEvent event = ProductOperationEvent.start("create")) {
+            product.setChangeSeq(changeSequence.next());
+            Product created = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.created(created));
+            event.complete(null, 1, false);
+            return created;
+        }
+    }
+
+    // Create a batch of products in a single transaction. The rows are inserted unnumbered and numbered
+    // last, so the counter is held only for the flush before commit rather than for the whole batch, and
+    // other writers are not stalled by an import. New rows are locked by nobody else, so taking the counter
+    // after them cannot deadlock with writers that take it before locking existing products
+    @Override
+    @Transactional
+    public List<Product> createAll(List<Product> products) {
+        try (ProductOperationEvent event = ProductOperationEvent.start("createAll")) {
+            List<Product> created = productRepository.saveAll(products);
+            long changeSeq = created.isEmpty() ? 0 : changeSequence.next(created.size());
+            for (Product product : created) {
+                product.setChangeSeq(changeSeq++);
+            }
+            productRepository.flush();
+            for (Product product : created) {
+                eventPublisher.publishEvent(ProductChangedEvent.created(product));
+            }
+            event.complete(null, created.size(), false);
+            return created;
+        }
     }
 
     // Update an existing product
     @Override
+    @Transactional(noRollbackFor = ProductNotFoundException.class)
     public Product update(Long id, Product productDetails) {
-        Product product = findById(id);
-        
-        product.setName(productDetails.getName());
-        product.setDescription(productDetails.getDescription());
-        product.setPrice(productDetails.getPrice());
-        product.setAvailable(productDetails.getAvailable());
-        product.setCategory(productDetails.getCategory());
-        
-        return productRepository.save(product);
+        try (ProductOperationEvent event = ProductOperationEvent.start("update")) {
+            Product product = findById(id);
+            Product previous = new Product(product);
+            // Numbered before any row is changed, so writers queue on the counter before they lock products
+            long changeSeq = changeSequence.next();
+
+            product.setName(productDetails.getName());
+            product.setDescription(productDetails.getDescription());
+            product.setPrice(productDetails.getPrice());
+            product.setAvailable(productDetails.getAvailable());
+            product.setCategory(productDetails.getCategory());
+            product.setChangeSeq(changeSeq);
+
+            Product updated = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(previous, updated));
+            event.complete(id, 1, false);
+            return updated;
+        }
     }
 
     // Delete a product
     @Override
+    @Transactional(noRollbackFor = ProductNotFoundException.class)
     public void delete(Long id) {
-        Product product = findById(id);
-        productRepository.delete(product);
+        try (ProductOperationEvent event = ProductOperationEvent.start("delete")) {
+            Product product = findById(id);
+            long changeSeq = changeSequence.next();
+            productRepository.delete(product);
+            tombstoneRepository.save(new ProductTombstone(id, changeSeq, Instant.now()));
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(new Product(product)));
+            event.complete(id, 1, false);
+        }
     }
 
     // Find a product by ID
     @Override
     public Product findById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
+        try (ProductOperationEvent event = ProductOperationEvent.start("findById")) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
+            event.complete(id, 1, false);
+            return product;
+        }
+    }
+
+    // Find several products by id, preserving request order and reporting missing ids
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ProductLookup findAllByIds(List<Long> ids) {
+        try (ProductOperationEvent event = ProductOperationEvent.start("findAllByIds")) {
+            Set<Long> distinctIds = new LinkedHashSet<>(ids);
+            Map<Long, Product> found = listCache.getAllById();
+            boolean cacheHit = found != null;
+            if (!cacheHit) {
+                found = new HashMap<>(distinctIds.size() * 4 / 3 + 1);
+                List<Long> pending = new ArrayList<>(distinctIds);
+                for (int from = 0; from < pending.size(); from += MULTI_GET_CHUNK_SIZE) {
+                    List<Long> chunk = pending.subList(from, Math.min(from + MULTI_GET_CHUNK_SIZE, pending.size()));
+                    for (Product product : productRepository.multiLoad(chunk)) {
+                        found.put(product.getId(), product);
+                    }
+                }
+            }
+
+            List<Product> products = new ArrayList<>(distinctIds.size());
+            List<Long> missingIds = new ArrayList<>();
+            for (Long id : distinctIds) {
+                Product product = found.get(id);
+                if (product != null) {
+                    products.add(product);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            event.complete("ids=" + distinctIds.size(), products.size(), cacheHit);
+            return new ProductLookup(products, missingIds);
+        }
     }
 
     // List all products
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Product> findAll() {
-        return productRepository.findAll();
+        return cached("findAll", ProductListCache.Filter.all(), productRepository::findAll);
     }
 
     // Find products by name
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Product> findByName(String name) {
-        return productRepository.findByName(name);
+        if (name == null) {
+            return productRepository.findByName(null);
+        }
+        return cached("findByName", ProductListCache.Filter.name(name), () -> productRepository.findByName(name));
     }
 
     // Find products by price
     @Override
     public List<Product> findByPrice(BigDecimal price) {
-        return productRepository.findByPrice(price);
+        try (ProductOperationEvent event = ProductOperationEvent.start("findByPrice")) {
+            List<Product> products = productRepository.findByPrice(price);
+            event.complete(price, products.size(), false);
+            return products;
+        }
     }
 
     // Find products by availability
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Product> findByAvailability(Boolean available) {
-        return productRepository.findByAvailable(available);
+        if (available == null) {
+            return productRepository.findByAvailable(null);
+        }
+        return cached("findByAvailability", ProductListCache.Filter.availability(available),
+                () -> productRepository.findByAvailable(available));
     }
 
     // Find products by category
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Product> findByCategory(Product.Category category) {
-        return productRepository.findByCategory(category);
+        if (category == null) {
+            return productRepository.findByCategory(null);
+        }
+        return cached("findByCategory", ProductListCache.Filter.category(category),
+                () -> productRepository.findByCategory(category));
+    }
+
+    /**
+     * Returns the first {@code limit} matching products in the requested order. When
+     * a current cached list covers the query, a heap of {@code limit} rows is kept
+     * while walking it, so the matches are never collected and sorted in full.
+     * Otherwise ORDER BY and LIMIT go to the database, where indexes on the sort
+     * columns let it stop after the first rows. The id breaks ties in both paths.
+     *
+     * <p>Only orders Java reproduces exactly take the in-memory path: names follow
+     * the database collation and timestamps its precision and null ordering, so
+     * sorts on those always go to the database.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<Product> findTop(ProductQuery query) {
+        try (ProductOperationEvent event = ProductOperationEvent.start("findTop")) {
+            Sort sort = tieBroken(query.getSort());
+            List<Product> cached = sortableInMemory(sort) ? listCache.peek(coveringFilter(query)) : null;
+            List<Product> top;
+            if (cached != null) {
+                top = topK(cached, query, comparator(sort, null));
+            } else {
+                top = productRepository.findBy(specification(query), q -> q.sortBy(sort).limit(query.getLimit()).all());
+            }
+            event.complete(query, top.size(), cached != null);
+            return top;
+        }
+    }
+
+    // A cache hit is a call whose loader never ran
+    private List<Product> cached(String operation, ProductListCache.Filter filter, Supplier<List<Product>> loader) {
+        try (ProductOperationEvent event = ProductOperationEvent.start(operation)) {
+            boolean[] loaded = new boolean[1];
+            List<Product> products = listCache.get(filter, () -> {
+                loaded[0] = true;
+                return loader.get();
+            });
+            event.complete(filter.getKey(), products.size(), !loaded[0]);
+            return products;
+        }
+    }
+
+    // The id last, so rows that tie on the requested order still come out in a stable order
+    static Sort tieBroken(Sort sort) {
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    static Specification<Product> specification(ProductQuery query) {
+        return Specification.where(ProductSpecifications.hasName(query.getName()))
+                .and(ProductSpecifications.inCategory(query.getCategory()))
+                .and(ProductSpecifications.isAvailable(query.getAvailable()));
+    }
+
+    // The most selective cached list that contains every possible match
+    static ProductListCache.Filter coveringFilter(ProductQuery query) {
+        if (query.getName() != null) {
+            return ProductListCache.Filter.name(query.getName());
+        }
+        if (query.getCategory() != null) {
+            return ProductListCache.Filter.category(query.getCategory());
+        }
+        if (query.getAvailable() != null) {
+            return ProductListCache.Filter.availability(query.getAvailable());
+        }
+        return ProductListCache.Filter.all();
+    }
+
+    // Bounded max-heap: the root is the worst row kept and is replaced by any better one
+    static List<Product> topK(List<Product> products, ProductQuery query, Comparator<Product> order) {
+        int limit = query.getLimit();
+        PriorityQueue<Product> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Product product : products) {
+            if (!query.matches(product)) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(product);
+            } else if (limit > 0 && order.compare(product, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(product);
+            }
+        }
+        List<Product> top = new ArrayList<>(heap);
+        top.sort(order);
+        return top;
+    }
+
+    // Non-null numeric columns, whose order in Java is the order in every database
+    static boolean sortableInMemory(Sort sort) {
+        return sort.stream().allMatch(order -> IN_MEMORY_SORTABLE.contains(order.getProperty()));
+    }
+
+    // Names compare by the given order, which has to be the database collation; timestamps read back
+    // from the database compare as it stored them, with nulls last as in PostgreSQL
+    static Comparator<Product> comparator(Sort sort, Comparator<String> names) {
+        Comparator<Product> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Product> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Product::getId);
+                case "name" -> {
+                    if (names == null) {
+                        throw new IllegalArgumentException("Names sort in the database collation only");
+                    }
+                    yield Comparator.comparing(Product::getName, names);
+                }
+                case "price" -> Comparator.comparing(Product::getPrice);
+                case "updatedAt" -> Comparator.comparing(Product::getUpdatedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Unsupported sort property " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
     }
 }
@@ -0,0 +1,232 @@
+package com.productstore.service.service;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.shard.ProductIdAllocator;
+import com.productstore.service.shard.ShardContext;
+import com.productstore.service.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Spreads products over several databases by id.
+ *
+ * <p>Ids are allocated before the insert, and the {@link ShardRouter}'s ring
+ * maps each id to a shard. Calls that name one product are bound to its shard
+ * and run by {@link ProductServiceImpl} there, so they keep its transactions and
+ * change events. Finders query every shard in parallel and merge the results in
+ * id order; sorted, limited listings take the first rows of each shard and merge
+ * those. Merged lists are cached like on a single database. A batch create is
+ * split by shard and is atomic per shard only.
+ *
+ * <p>This class is not transactional itself: the shard has to be bound before
+ * a transaction takes its connection. For the same reason it must not be called
+ * from inside a surrounding transaction.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "true")
+public class ShardedProductService implements ProductService {
+
+    private final ProductServiceImpl delegate;
+    private final ProductRepository productRepository;
+    private final ProductListCache listCache;
+    private final ShardRouter router;
+    private final ProductIdAllocator idAllocator;
+
+    @Autowired
+    public ShardedProductService(ProductServiceImpl delegate, ProductRepository productRepository,
+                                 ProductListCache listCache, ShardRouter router, ProductIdAllocator idAllocator) {
+        this.delegate = delegate;
+        this.productRepository = productRepository;
+        this.listCache = listCache;
+        this.router = router;
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public Product create(Product product) {
+        long id = idAllocator.next();
+        return ShardContext.call(router.shardFor(id), List.of(id), () -> delegate.create(product));
+    }
+
+    @Override
+    public List<Product> createAll(List<Product> products) {
+        List<Long> ids = idAllocator.next(products.size());
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            positions.computeIfAbsent(router.shardFor(ids.get(i)), k -> new ArrayList<>()).add(i);
+        }
+        // Inserts take reserved ids in order, so each shard's products go in the order of their ids
+        List<List<Product>> created = router.scatter(positions.keySet(), shard -> {
+            List<Integer> indexes = positions.get(shard);
+            List<Product> batch = new ArrayList<>(indexes.size());
+            List<Long> batchIds = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                batch.add(products.get(index));
+                batchIds.add(ids.get(index));
+            }
+            return ShardContext.call(shard, batchIds, () -> delegate.createAll(batch));
+        });
+        Product[] result = new Product[products.size()];
+        int shardIndex = 0;
+        for (List<Integer> indexes : positions.values()) {
+            List<Product> shardCreated = created.get(shardIndex++);
+            for (int i = 0; i < indexes.size(); i++) {
+                result[indexes.get(i)] = shardCreated.get(i);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    @Override
+    public Product update(Long id, Product productDetails) {
+        return router.on(router.shardFor(id), () -> delegate.update(id, productDetails));
+    }
+
+    @Override
+    public void delete(Long id) {
+        router.on(router.shardFor(id), () -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Product findById(Long id) {
+        return router.on(router.shardFor(id), () -> delegate.findById(id));
+    }
+
+    @Override
+    public ProductLookup findAllByIds(List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Product> found = listCache.getAllById();
+        if (found == null) {
+            Map<String, List<Long>> byShard = new LinkedHashMap<>();
+            for (Long id : distinctIds) {
+                byShard.computeIfAbsent(router.shardFor(id), k -> new ArrayList<>()).add(id);
+            }
+            found = new HashMap<>(distinctIds.size() * 4 / 3 + 1);
+            for (List<Product> products : router.scatter(byShard.keySet(),
+                    shard -> productRepository.multiLoad(byShard.get(shard)))) {
+                for (Product product : products) {
+                    found.put(product.getId(), product);
+                }
+            }
+        }
+        List<Product> products = new ArrayList<>(distinctIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductLookup(products, missingIds);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return listCache.get(ProductListCache.Filter.all(), () -> gather(shard -> productRepository.findAll()));
+    }
+
+    @Override
+    public List<Product> findByName(String name) {
+        if (name == null) {
+            return gather(shard -> productRepository.findByName(null));
+        }
+        return listCache.get(ProductListCache.Filter.name(name),
+                () -> gather(shard -> productRepository.findByName(name)));
+    }
+
+    @Override
+    public List<Product> findByPrice(BigDecimal price) {
+        return gather(shard -> productRepository.findByPrice(price));
+    }
+
+    @Override
+    public List<Product> findByAvailability(Boolean available) {
+        if (available == null) {
+            return gather(shard -> productRepository.findByAvailable(null));
+        }
+        return listCache.get(ProductListCache.Filter.availability(available),
+                () -> gather(shard -> productRepository.findByAvailable(available)));
+    }
+
+    @Override
+    public List<Product> findByCategory(Product.Category category) {
+        if (category == null) {
+            return gather(shard -> productRepository.findByCategory(null));
+        }
+        return listCache.get(ProductListCache.Filter.category(category),
+                () -> gather(shard -> productRepository.findByCategory(category)));
+    }
+
+    // The global first rows are among the first rows of the shards, so each shard is asked for no more
+    @Override
+    public List<Product> findTop(ProductQuery query) {
+        Sort sort = ProductServiceImpl.tieBroken(query.getSort());
+        List<Product> cached = ProductServiceImpl.sortableInMemory(sort)
+                ? listCache.peek(ProductServiceImpl.coveringFilter(query))
+                : null;
+        if (cached != null) {
+            return ProductServiceImpl.topK(cached, query, ProductServiceImpl.comparator(sort, null));
+        }
+        List<Product> merged = new ArrayList<>();
+        for (List<Product> products : router.scatter(shard -> productRepository.findBy(
+                ProductServiceImpl.specification(query), q -> q.sortBy(sort).limit(query.getLimit()).all()))) {
+            merged.addAll(products);
+        }
+        Comparator<String> names = sort.getOrderFor("name") != null ? collation(merged) : null;
+        merged.sort(ProductServiceImpl.comparator(sort, names));
+        return merged.size() > query.getLimit() ? List.copyOf(merged.subList(0, query.getLimit())) : merged;
+    }
+
+    // Ranks the merged names by an ORDER BY on one shard, so they merge in the collation the shards
+    // sorted them by rather than in Java's code-point order. All shards are assumed to share it
+    private Comparator<String> collation(List<Product> products) {
+        List<String> names = products.stream().map(Product::getName).distinct().toList();
+        if (names.isEmpty()) {
+            return Comparator.naturalOrder();
+        }
+        String values = String.join(", ", Collections.nCopies(names.size(), "(cast(? as varchar))"));
+        List<String> ordered = new JdbcTemplate(router.dataSource(router.getShards().get(0))).queryForList(
+                "select v from (values " + values + ") as t(v) order by v", String.class, names.toArray());
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            rank.put(ordered.get(i), i);
+        }
+        return Comparator.comparing(rank::get);
+    }
+
+    // A product seen on two shards while it is being moved is returned once
+    private List<Product> gather(Function<String, List<Product>> finder) {
+        TreeMap<Long, Product> byId = new TreeMap<>();
+        for (List<Product> products : router.scatter(finder)) {
+            for (Product product : products) {
+                byId.putIfAbsent(product.getId(), product);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+}
@@ -0,0 +1,108 @@
+package com.productstore.service.service;
+
+import java.util.List;
+
+/**
+ * One read in a composite query. {@code key} names its result in the response;
+ * {@code type} selects the {@link ProductService} finder, and only the fields
+ * that finder takes are read.
+ */
+public class SubQuery {
+
+    public enum Type {
+        // id
+        BY_ID,
+        // ids
+        BY_IDS,
+        // name
+        BY_NAME,
+        // category, plus sort and limit; the first rows of the category, never all of it
+        BY_CATEGORY,
+        // available, plus sort and limit; the first rows of the availability class, never all of it
+        BY_AVAILABILITY,
+        // any of name, category, available, plus sort and limit
+        TOP
+    }
+
+    private String key;
+    private Type type;
+    private Long id;
+    private List<Long> ids;
+    private String name;
+    private String category;
+    private Boolean available;
+    private String sort;
+    private Integer limit;
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,41 @@
+package com.productstore.service.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one sub-query: an HTTP-style status and either the finder's result
+ * or an error message. Sub-queries fail independently of each other.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubQueryResult {
+
+    private final int status;
+    private final Object result;
+    private final String error;
+
+    private SubQueryResult(int status, Object result, String error) {
+        this.status = status;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static SubQueryResult ok(Object result) {
+        return new SubQueryResult(200, result, null);
+    }
+
+    public static SubQueryResult failed(int status, String error) {
+        return new SubQueryResult(status, null, error);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
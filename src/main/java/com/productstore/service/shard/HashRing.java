@@ -0,0 +1,82 @@
+package com.productstore.service.shard;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consistent hash ring mapping product ids to shard names.
+ *
+ * <p>Each shard owns {@code virtualNodes} points on a 64-bit ring and an id
+ * belongs to the first point at or after its hash, wrapping around. Adding a
+ * shard therefore only moves the ids that now fall just before its points,
+ * about 1/N of them, all to the new shard. Lookups are a binary search over
+ * sorted arrays. Immutable.
+ */
+public final class HashRing {
+
+    private final List<String> shards;
+    private final long[] points;
+    private final String[] owners;
+
+    private HashRing(List<String> shards, int virtualNodes) {
+        this.shards = List.copyOf(shards);
+        long[][] entries = new long[shards.size() * virtualNodes][];
+        int n = 0;
+        for (int s = 0; s < shards.size(); s++) {
+            long seed = hash(shards.get(s));
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[]{mix(seed + v * 0x9E3779B97F4A7C15L), s};
+            }
+        }
+        // Ties between points are broken by shard order, so every node builds the same ring
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[entries.length];
+        owners = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = shards.get((int) entries[i][1]);
+        }
+    }
+
+    public static HashRing of(List<String> shards, int virtualNodes) {
+        Set<String> distinct = new LinkedHashSet<>(shards);
+        if (distinct.isEmpty() || distinct.size() != shards.size()) {
+            throw new IllegalArgumentException("Shard names must be non-empty and distinct: " + shards);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        return new HashRing(shards, virtualNodes);
+    }
+
+    public String shardFor(long id) {
+        int index = Arrays.binarySearch(points, mix(id));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    // FNV-1a, so the ring depends only on the shard names
+    private static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer: spreads sequential ids evenly around the ring
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
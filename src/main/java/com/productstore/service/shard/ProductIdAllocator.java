@@ -0,0 +1,106 @@
+package com.productstore.service.shard;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out product ids that are unique across all shards and all nodes.
+ *
+ * <p>Ids come in blocks claimed from a counter row on the default shard: one
+ * short transaction advances the counter by {@code blockSize}, and the ids in
+ * between are then given out from memory. A node that stops wastes the rest of
+ * its block, so ids are unique and increasing per node but not gap-free.
+ */
+public class ProductIdAllocator {
+
+    private static final String COUNTER = "products";
+
+    private final DataSource dataSource;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    public ProductIdAllocator(DataSource dataSource, int blockSize) {
+        this.dataSource = dataSource;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Creates the counter if needed and moves it past {@code floor}, the highest
+     * id already in use, so ids assigned before sharding are never handed out.
+     */
+    public synchronized void initialize(long floor) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists product_id_blocks "
+                        + "(name varchar(64) primary key, next_id bigint not null)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into product_id_blocks (name, next_id) select ?, ? where not exists "
+                            + "(select 1 from product_id_blocks where name = ?)")) {
+                insert.setString(1, COUNTER);
+                insert.setLong(2, floor + 1);
+                insert.setString(3, COUNTER);
+                insert.executeUpdate();
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update product_id_blocks set next_id = ? where name = ? and next_id <= ?")) {
+                update.setLong(1, floor + 1);
+                update.setString(2, COUNTER);
+                update.setLong(3, floor);
+                update.executeUpdate();
+            }
+        }
+        next = limit;
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            claimBlock();
+        }
+        return next++;
+    }
+
+    public synchronized List<Long> next(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(next());
+        }
+        return ids;
+    }
+
+    private void claimBlock() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update product_id_blocks set next_id = next_id + ? where name = ?");
+                 PreparedStatement select = connection.prepareStatement(
+                         "select next_id from product_id_blocks where name = ?")) {
+                update.setInt(1, blockSize);
+                update.setString(2, COUNTER);
+                if (update.executeUpdate() != 1) {
+                    throw new IllegalStateException("Product id allocator is not initialized");
+                }
+                select.setString(1, COUNTER);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    limit = rs.getLong(1);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            next = limit - blockSize;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not claim a block of product ids", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.productstore.service.shard;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Generates product ids. Without sharding it behaves exactly like an identity
+ * column. When the Hibernate settings carry a {@link ProductIdAllocator} under
+ * {@link #ALLOCATOR_SETTING}, ids are assigned before the insert instead: the
+ * sharded service reserves them up front, as it needs the id to pick the shard.
+ *
+ * <p>Only {@code ShardingConfig} puts the allocator into the settings, so a
+ * deployment without {@code product.sharding.enabled} keeps database-assigned
+ * ids and JDBC behaviour identical to {@code GenerationType.IDENTITY}.
+ */
+public class ProductIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    public static final String ALLOCATOR_SETTING = "product.sharding.id-allocator";
+
+    private final boolean sharded;
+
+    public ProductIdGenerator(ShardedId annotation, Member member, CustomIdGeneratorCreationContext context) {
+        this.sharded = context.getServiceRegistry().getService(ConfigurationService.class)
+                .getSettings().get(ALLOCATOR_SETTING) instanceof ProductIdAllocator;
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return !sharded;
+    }
+
+    // An insert without a reserved id would land on whatever shard happens to be bound
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Long reserved = ShardContext.takeReservedId();
+        if (reserved == null) {
+            throw new IllegalStateException("Sharded products must be created through the product service");
+        }
+        return reserved;
+    }
+}
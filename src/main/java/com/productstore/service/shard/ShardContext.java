@@ -0,0 +1,60 @@
+package com.productstore.service.shard;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The shard the current thread's database work goes to, bound for the length of
+ * a call. {@link ShardRoutingDataSource} reads it when a transaction takes a
+ * connection, so it must be bound before the transaction starts. Ids reserved
+ * for the call are handed to the inserts it makes, in order.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<ShardContext> CURRENT = new ThreadLocal<>();
+
+    private final String shard;
+    private final Deque<Long> reservedIds;
+
+    private ShardContext(String shard, Deque<Long> reservedIds) {
+        this.shard = shard;
+        this.reservedIds = reservedIds;
+    }
+
+    // The shard bound to this thread, or null when there is none
+    public static String currentShard() {
+        ShardContext context = CURRENT.get();
+        return context != null ? context.shard : null;
+    }
+
+    // The next id reserved for this call, or null when none is left
+    public static Long takeReservedId() {
+        ShardContext context = CURRENT.get();
+        return context != null ? context.reservedIds.poll() : null;
+    }
+
+    public static <T> T call(String shard, Callable<T> task) {
+        return call(shard, List.of(), task);
+    }
+
+    public static <T> T call(String shard, Collection<Long> reservedIds, Callable<T> task) {
+        ShardContext previous = CURRENT.get();
+        CURRENT.set(new ShardContext(shard, new ArrayDeque<>(reservedIds)));
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
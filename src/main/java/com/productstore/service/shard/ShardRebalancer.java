@@ -0,0 +1,112 @@
+package com.productstore.service.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Moves products that are not on the shard the ring assigns them to. After a
+ * shard is added to the configuration, a pass moves the ids that now belong to
+ * it, roughly 1/N of all products; nothing else moves.
+ *
+ * <p>Each shard is scanned by id in batches. A batch is first written to its new
+ * shard, replacing any copy left there by an interrupted pass, and only then
+ * deleted from the old one, so a product is never missing and passes can be
+ * repeated safely. Until a pass has finished, products owned by the new shard
+ * that are still on the old one are not found by id. Rows are copied column by
+ * column over plain JDBC, so the products table needs no special mapping.
+ */
+public class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardRouter router;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardRouter router, int batchSize) {
+        this.router = router;
+        this.batchSize = batchSize;
+    }
+
+    // Returns the number of products moved
+    public synchronized long rebalance() {
+        long moved = 0;
+        for (String shard : router.getShards()) {
+            moved += rebalance(shard);
+        }
+        if (moved > 0) {
+            logger.info("Moved {} products to the shards that own them", moved);
+        }
+        return moved;
+    }
+
+    public List<ShardStats> stats() {
+        List<ShardStats> stats = new ArrayList<>();
+        for (String shard : router.getShards()) {
+            Long count = new JdbcTemplate(router.dataSource(shard))
+                    .queryForObject("select count(*) from products", Long.class);
+            stats.add(new ShardStats(shard, count != null ? count : 0));
+        }
+        return stats;
+    }
+
+    private long rebalance(String source) {
+        JdbcTemplate jdbc = new JdbcTemplate(router.dataSource(source));
+        long moved = 0;
+        long after = Long.MIN_VALUE;
+        while (true) {
+            List<Long> ids = jdbc.queryForList(
+                    "select id from products where id > ? order by id limit ?", Long.class, after, batchSize);
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            after = ids.get(ids.size() - 1);
+            Map<String, List<Long>> misplaced = new HashMap<>();
+            for (Long id : ids) {
+                String owner = router.shardFor(id);
+                if (!owner.equals(source)) {
+                    misplaced.computeIfAbsent(owner, k -> new ArrayList<>()).add(id);
+                }
+            }
+            for (Map.Entry<String, List<Long>> entry : misplaced.entrySet()) {
+                move(source, entry.getKey(), entry.getValue());
+                moved += entry.getValue().size();
+            }
+        }
+    }
+
+    private void move(String source, String target, List<Long> ids) {
+        NamedParameterJdbcTemplate from = new NamedParameterJdbcTemplate(router.dataSource(source));
+        NamedParameterJdbcTemplate to = new NamedParameterJdbcTemplate(router.dataSource(target));
+        MapSqlParameterSource byIds = new MapSqlParameterSource("ids", ids);
+        List<Map<String, Object>> rows = from.queryForList("select * from products where id in (:ids)", byIds);
+        if (rows.isEmpty()) {
+            return;
+        }
+        new TransactionTemplate(new DataSourceTransactionManager(router.dataSource(target)))
+                .executeWithoutResult(status -> {
+                    to.update("delete from products where id in (:ids)", byIds);
+                    for (Map<String, Object> row : rows) {
+                        StringJoiner columns = new StringJoiner(", ");
+                        StringJoiner values = new StringJoiner(", ");
+                        for (String column : row.keySet()) {
+                            columns.add(column);
+                            values.add(":" + column);
+                        }
+                        to.update("insert into products (" + columns + ") values (" + values + ")",
+                                new MapSqlParameterSource(row));
+                    }
+                });
+        from.update("delete from products where id in (:ids)", byIds);
+    }
+}
@@ -0,0 +1,107 @@
+package com.productstore.service.shard;
+
+import com.productstore.service.deadline.Deadline;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * The configured shards, the ring that assigns ids to them, and the means to run
+ * work on one shard or on several at once.
+ */
+public class ShardRouter implements Closeable {
+
+    private final HashRing ring;
+    private final Map<String, DataSource> dataSources;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("shard-scatter-", 0).factory();
+
+    public ShardRouter(HashRing ring, Map<String, DataSource> dataSources) {
+        this.ring = ring;
+        this.dataSources = Map.copyOf(dataSources);
+    }
+
+    public String shardFor(long id) {
+        return ring.shardFor(id);
+    }
+
+    public List<String> getShards() {
+        return ring.getShards();
+    }
+
+    public HashRing getRing() {
+        return ring;
+    }
+
+    public DataSource dataSource(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return dataSource;
+    }
+
+    public <T> T on(String shard, Callable<T> task) {
+        return ShardContext.call(shard, task);
+    }
+
+    // Runs the task on every shard; results in shard order
+    public <T> List<T> scatter(Function<String, T> task) {
+        return scatter(getShards(), task);
+    }
+
+    /**
+     * Runs the task once per shard, each on its own virtual thread with that shard
+     * bound and the caller's deadline carried along, and waits for all of them.
+     * The first failure cancels the rest and is rethrown.
+     */
+    public <T> List<T> scatter(Collection<String> shards, Function<String, T> task) {
+        if (shards.size() == 1) {
+            String shard = shards.iterator().next();
+            return List.of(on(shard, () -> task.apply(shard)));
+        }
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+            List<Future<T>> futures = new ArrayList<>(shards.size());
+            for (String shard : shards) {
+                futures.add(executor.submit(Deadline.propagate(() -> on(shard, () -> task.apply(shard)))));
+            }
+            List<T> results = new ArrayList<>(shards.size());
+            try {
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+            return results;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+}
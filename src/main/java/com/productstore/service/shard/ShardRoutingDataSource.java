@@ -0,0 +1,15 @@
+package com.productstore.service.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections to the shard bound in {@link ShardContext}; without one,
+ * to the default shard, which also holds every table that is not sharded.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+}
@@ -0,0 +1,23 @@
+package com.productstore.service.shard;
+
+/**
+ * Row count of one shard at the time it was read.
+ */
+public class ShardStats {
+
+    private final String shard;
+    private final long products;
+
+    public ShardStats(String shard, long products) {
+        this.shard = shard;
+        this.products = products;
+    }
+
+    public String getShard() {
+        return shard;
+    }
+
+    public long getProducts() {
+        return products;
+    }
+}
@@ -0,0 +1,18 @@
+package com.productstore.service.shard;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id generated by {@link ProductIdGenerator}: an identity column on a
+ * single database, ids from the {@link ProductIdAllocator} when sharded.
+ */
+@IdGeneratorType(ProductIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+}
@@ -0,0 +1,127 @@
+package com.productstore.service.sync;
+
+import com.productstore.service.exception.ChangeTokenExpiredException;
+import com.productstore.service.model.ChangeHorizon;
+import com.productstore.service.model.Product;
+import com.productstore.service.model.ProductTombstone;
+import com.productstore.service.repository.ChangeHorizonRepository;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.repository.ProductTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves changes since a token, so mirrors of the catalog pay for churn rather
+ * than catalog size. A token is a change sequence number: the products whose
+ * last write and the tombstones whose deletion lie above it are the changes.
+ * Rows are read only up to the {@link ChangeSequence#watermark()}, and a page
+ * ends on a sequence number, so consecutive pages neither skip nor repeat rows.
+ *
+ * <p>Tombstones are purged once older than the retention period. Tokens from
+ * before the last purge may have missed deletions and are refused, telling the
+ * caller to start over from token 0. The purge horizon is read from the database
+ * on every call, so a purge on one node is honoured by all of them.
+ *
+ * <p>Each shard numbers its own changes, so there is no single token to read from
+ * when products are sharded; the feed is not created then.
+ */
+@Component
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ChangeHorizonRepository horizonRepository;
+    private final ChangeSequence sequence;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    @Autowired
+    public ChangeFeed(ProductRepository productRepository,
+                      ProductTombstoneRepository tombstoneRepository,
+                      ChangeHorizonRepository horizonRepository,
+                      ChangeSequence sequence,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${product.changes.tombstone-retention:P7D}") Duration retention) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.horizonRepository = horizonRepository;
+        this.sequence = sequence;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductChanges changesSince(long since, int limit) {
+        if (since < getPurgedThrough()) {
+            throw new ChangeTokenExpiredException("Token " + since + " is older than the retained deletions; "
+                    + "sync again from token 0");
+        }
+        long upTo = sequence.watermark();
+        if (since >= upTo) {
+            return new ProductChanges(List.of(), List.of(), Math.max(since, upTo), false);
+        }
+        List<Product> products = productRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(since, upTo, Limit.of(limit));
+        List<ProductTombstone> tombstones = tombstoneRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(since, upTo, Limit.of(limit));
+        boolean hasMore = products.size() == limit || tombstones.size() == limit;
+
+        // Merge both sorted lists by sequence number and keep the first limit changes
+        List<Product> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long token = since;
+        int p = 0;
+        int t = 0;
+        while (changed.size() + deleted.size() < limit && (p < products.size() || t < tombstones.size())) {
+            if (t == tombstones.size()
+                    || (p < products.size() && products.get(p).getChangeSeq() < tombstones.get(t).getChangeSeq())) {
+                Product product = products.get(p++);
+                changed.add(product);
+                token = product.getChangeSeq();
+            } else {
+                ProductTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getProductId());
+                token = tombstone.getChangeSeq();
+            }
+        }
+        return new ProductChanges(changed, deleted, hasMore ? token : upTo, hasMore);
+    }
+
+    // Drop tombstones past retention and move the horizon up to the newest one dropped
+    @Scheduled(fixedDelayString = "${product.changes.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        Instant before = Instant.now().minus(retention);
+        transactionTemplate.executeWithoutResult(status -> {
+            long through = tombstoneRepository.findMaxChangeSeqDeletedBefore(before);
+            if (through <= getPurgedThrough()) {
+                return;
+            }
+            horizonRepository.save(new ChangeHorizon(through));
+            int removed = tombstoneRepository.deleteThrough(through);
+            logger.info("Purged {} product tombstones through change {}", removed, through);
+        });
+    }
+
+    public long getPurgedThrough() {
+        return horizonRepository.findById(ChangeHorizon.ID)
+                .map(ChangeHorizon::getPurgedThrough)
+                .orElse(0L);
+    }
+}
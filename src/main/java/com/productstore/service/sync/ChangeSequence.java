@@ -0,0 +1,149 @@
+package com.productstore.service.sync;
+
+import com.productstore.service.model.ChangeCounter;
+import com.productstore.service.model.ChangeHorizon;
+import com.productstore.service.repository.ChangeCounterRepository;
+import com.productstore.service.repository.ChangeHorizonRepository;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.repository.ProductTombstoneRepository;
+import com.productstore.service.shard.ShardContext;
+import com.productstore.service.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out the change sequence numbers stamped on product writes and tombstones.
+ *
+ * <p>Numbers come from a single counter row in the database. Taking one locks
+ * that row until the writing transaction ends, so writers on every node number
+ * their changes in the order they commit, and a rolled back number is simply
+ * handed out again. The committed value of the counter is therefore the
+ * {@link #watermark()}: every change up to it is visible, and no change below it
+ * can still commit. A reader can never skip a change that commits later with a
+ * lower number.
+ *
+ * <p>The counter row is created, and rows that predate the feed are numbered, as
+ * a lifecycle phase before the web server starts rather than at bean creation,
+ * so contexts that exit on refresh never touch the database.
+ *
+ * <p>When products are sharded, a write takes its number on the shard it goes to,
+ * so every shard gets a counter of its own and numbers only its own changes.
+ */
+@Component
+public class ChangeSequence implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeSequence.class);
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ChangeHorizonRepository horizonRepository;
+    private final ChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private volatile boolean running;
+
+    @Autowired
+    public ChangeSequence(ProductRepository productRepository,
+                          ProductTombstoneRepository tombstoneRepository,
+                          ChangeHorizonRepository horizonRepository,
+                          ChangeCounterRepository counterRepository,
+                          PlatformTransactionManager transactionManager,
+                          ObjectProvider<ShardRouter> shardRouter) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.horizonRepository = horizonRepository;
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void start() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            createCounter();
+        } else {
+            for (String shard : router.getShards()) {
+                ShardContext.call(shard, () -> {
+                    createCounter();
+                    return null;
+                });
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server accepts writes
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Allocates the next number for a write in the current transaction. Other
+     * writers wait for that transaction to commit or roll back before they get one.
+     */
+    public long next() {
+        return next(1);
+    }
+
+    // Allocates count consecutive numbers at once and returns the first of them
+    public long next(int count) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change sequence numbers are only allocated inside a transaction");
+        }
+        if (counterRepository.advance(ChangeCounter.ID, count) == 0) {
+            throw new IllegalStateException("The change counter has not been created yet");
+        }
+        return counterRepository.findLastSeq(ChangeCounter.ID).orElseThrow() - count + 1;
+    }
+
+    // Highest number such that every write up to it has committed or rolled back
+    public long watermark() {
+        return counterRepository.findLastSeq(ChangeCounter.ID).orElse(0L);
+    }
+
+    // A node starting alongside another may lose the race to create the counter; the retry finds it
+    private void createCounter() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> initialize());
+        } catch (DataIntegrityViolationException e) {
+            transactionTemplate.executeWithoutResult(status -> initialize());
+        }
+    }
+
+    // Continue after the highest number in use and number rows that predate the feed
+    private void initialize() {
+        if (counterRepository.advance(ChangeCounter.ID, 0) == 0) {
+            long highest = Math.max(productRepository.findMaxChangeSeq(), tombstoneRepository.findMaxChangeSeq());
+            highest = Math.max(highest, horizonRepository.findById(ChangeHorizon.ID)
+                    .map(ChangeHorizon::getPurgedThrough)
+                    .orElse(0L));
+            counterRepository.saveAndFlush(new ChangeCounter(highest));
+        }
+        long last = counterRepository.findLastSeq(ChangeCounter.ID).orElseThrow();
+        int backfilled = productRepository.backfillChangeSeq(last);
+        if (backfilled > 0) {
+            counterRepository.advance(ChangeCounter.ID, productRepository.findMaxId());
+            logger.info("Assigned change sequence numbers to {} existing products", backfilled);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.productstore.service.sync;
+
+import com.productstore.service.model.Product;
+
+import java.util.List;
+
+/**
+ * One page of the change feed: products created or updated and ids deleted after
+ * the caller's token, and the token to pass next time. While {@code hasMore} is
+ * set the caller should ask again right away.
+ */
+public class ProductChanges {
+
+    private final List<Product> products;
+    private final List<Long> deletedIds;
+    private final long token;
+    private final boolean hasMore;
+
+    public ProductChanges(List<Product> products, List<Long> deletedIds, long token, boolean hasMore) {
+        this.products = products;
+        this.deletedIds = deletedIds;
+        this.token = token;
+        this.hasMore = hasMore;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,35 @@
+-- Compact storage layout for the products table (PostgreSQL).
+--
+-- price (numeric) becomes price_cents (bigint), category (varchar enum name) becomes a smallint
+-- code, and name and description get explicit bounds. The type change rewrites the table and its
+-- indexes once, so the old wide rows are gone afterwards without a VACUUM FULL. Run it before
+-- starting a version with the new mapping: ddl-auto=update would otherwise add an empty
+-- price_cents column next to the old one. It fails, changing nothing, if a name is longer than
+-- 100 or a description longer than 255 characters; find them with
+--   select id from products where length(name) > 100 or length(description) > 255;
+-- With sharding, run it on every shard.
+
+BEGIN;
+
+-- Hibernate's check constraint listing the enum names cannot be converted to smallint
+ALTER TABLE products DROP CONSTRAINT IF EXISTS products_category_check;
+
+ALTER TABLE products RENAME COLUMN price TO price_cents;
+
+-- Codes must match Product.Category
+ALTER TABLE products
+    ALTER COLUMN price_cents TYPE bigint USING round(price_cents * 100)::bigint,
+    ALTER COLUMN category TYPE smallint USING CASE category
+        WHEN 'UNKNOWN' THEN 0
+        WHEN 'CLOTHS' THEN 1
+        WHEN 'FOOD' THEN 2
+        WHEN 'HOUSEWARES' THEN 3
+        WHEN 'AUTOMOTIVE' THEN 4
+        WHEN 'TOOLS' THEN 5
+    END,
+    ALTER COLUMN name TYPE varchar(100),
+    ALTER COLUMN description TYPE varchar(255);
+
+COMMIT;
+
+ANALYZE products;
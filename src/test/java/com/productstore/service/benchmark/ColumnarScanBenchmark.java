@@ -0,0 +1,99 @@
+package com.productstore.service.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productstore.service.catalog.CatalogQuery;
+import com.productstore.service.catalog.CatalogScanResult;
+import com.productstore.service.catalog.ColumnarCatalog;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+
+/**
+ * Compares "available TOOLS under $20, sorted by price" through JPA against the
+ * columnar catalog. Run with {@code make benchmarks}; row count is set with
+ * {@code -Dbenchmark.rows}.
+ */
+@DataJpaTest
+public class ColumnarScanBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void compareJpaAndColumnarScan() {
+        insertRows();
+        ColumnarCatalog catalog = new ColumnarCatalog(productRepository, null, null, null);
+        catalog.load(productRepository.findAll());
+        BigDecimal limit = new BigDecimal("20.00");
+        CatalogQuery query = new CatalogQuery(Product.Category.TOOLS, true, Long.MIN_VALUE, 2000, 100);
+
+        long jpaNanos = 0;
+        long columnarNanos = 0;
+        int jpaMatches = 0;
+        int columnarMatches = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            jpaMatches = (int) productRepository.findByCategory(Product.Category.TOOLS).stream()
+                    .filter(p -> p.getAvailable() && p.getPrice().compareTo(limit) <= 0)
+                    .sorted((a, b) -> a.getPrice().compareTo(b.getPrice()))
+                    .count();
+            jpaNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            CatalogScanResult result = catalog.scan(query);
+            columnarMatches = result.getTotal();
+            columnarNanos += System.nanoTime() - start;
+        }
+
+        assertEquals(jpaMatches, columnarMatches);
+        System.out.printf("rows=%d matches=%d jpa=%.2f ms/op columnar=%.3f ms/op speedup=%.0fx%n",
+                ROWS, columnarMatches,
+                jpaNanos / 1e6 / ITERATIONS, columnarNanos / 1e6 / ITERATIONS,
+                (double) jpaNanos / columnarNanos);
+    }
+
+    private void insertRows() {
+        Random random = new Random(42);
+        Product.Category[] categories = Product.Category.values();
+        List<Object[]> batch = new ArrayList<>();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[] {
+                    "Product " + (i % 1000),
+                    "Benchmark row",
+                    (long) random.nextInt(10_000),
+                    random.nextBoolean(),
+                    categories[random.nextInt(categories.length)].getCode()
+            });
+            if (batch.size() == 5_000) {
+                flush(jdbcTemplate, batch);
+            }
+        }
+        flush(jdbcTemplate, batch);
+    }
+
+    private void flush(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (name, description, price_cents, available, category) VALUES (?, ?, ?, ?, ?)",
+                batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package com.productstore.service.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.service.ImportSummary;
+import com.productstore.service.service.ProductImportService;
+import com.productstore.service.service.ProductService;
+
+/**
+ * Compares one ProductService.create call per row (what scripted POST /products
+ * amounts to, minus HTTP) against the streaming import pipeline.
+ */
+@SpringBootTest
+public class ImportThroughputBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void compareSingleRowAndBulkImport() throws Exception {
+        productRepository.deleteAll();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Benchmark row");
+            product.setPrice(new BigDecimal("9.99"));
+            product.setCategory(Product.Category.TOOLS);
+            productService.create(product);
+        }
+        long singleRowNanos = System.nanoTime() - start;
+
+        StringBuilder csv = new StringBuilder("name,description,price,available,category\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Product ").append(i).append(",Benchmark row,9.99,true,TOOLS\n");
+        }
+        start = System.nanoTime();
+        ImportSummary summary = productImportService.importProducts(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.CSV);
+        long importNanos = System.nanoTime() - start;
+
+        assertEquals(ROWS, summary.getRowsImported());
+        assertEquals(2L * ROWS, productRepository.count());
+        System.out.printf("rows=%d single-row=%.0f rows/s import=%.0f rows/s speedup=%.1fx%n",
+                ROWS, ROWS / (singleRowNanos / 1e9), ROWS / (importNanos / 1e9),
+                (double) singleRowNanos / importNanos);
+    }
+}
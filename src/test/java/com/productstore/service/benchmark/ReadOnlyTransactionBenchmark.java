@@ -0,0 +1,84 @@
+package com.productstore.service.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+
+/**
+ * Loads the same rows inside read-write and read-only transactions and reports
+ * time and bytes allocated per load. In read-write mode Hibernate keeps a
+ * snapshot of every entity and dirty-checks them all at commit.
+ */
+@SpringBootTest
+public class ReadOnlyTransactionBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void compareReadWriteAndReadOnlyLoads() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Benchmark row");
+            product.setPrice(new BigDecimal("4.99"));
+            product.setCategory(Product.Category.FOOD);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < 3; i++) {
+            readWrite.execute(status -> productRepository.findAll());
+            readOnly.execute(status -> productRepository.findAll());
+        }
+
+        long[] readWriteCost = measure(readWrite);
+        long[] readOnlyCost = measure(readOnly);
+
+        assertTrue(readOnlyCost[1] < readWriteCost[1]);
+        System.out.printf("rows=%d read-write=%.1f ms %.1f MB read-only=%.1f ms %.1f MB per load%n",
+                ROWS, readWriteCost[0] / 1e6, readWriteCost[1] / 1e6,
+                readOnlyCost[0] / 1e6, readOnlyCost[1] / 1e6);
+    }
+
+    // Average nanoseconds and allocated bytes of one full load on this thread
+    private long[] measure(TransactionTemplate template) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<Product> loaded = template.execute(status -> productRepository.findAll());
+            assertEquals(ROWS, loaded.size());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new long[] {elapsed / ITERATIONS, allocated / ITERATIONS};
+    }
+}
@@ -0,0 +1,168 @@
+package com.productstore.service.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.model.Product;
+
+/**
+ * Compares the compact products table (bigint cents, smallint category) with the
+ * previous layout (numeric price, varchar category), loaded with the same rows:
+ * table and index size, buffer cache hits and time for an indexed range scan and
+ * a full scan. Run with {@code make benchmarks}; row count is set with
+ * {@code -Dbenchmark.rows}. Sizes and buffer counts need PostgreSQL; point it at
+ * a scratch database with {@code -Dspring.datasource.url=...} and the matching
+ * username, password, driver and dialect. On H2 only the timings are reported.
+ */
+@SpringBootTest
+public class StorageLayoutBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int ITERATIONS = 10;
+    private static final String WIDE_TABLE = "products_wide";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void compareCompactAndWideLayouts() throws SQLException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        boolean postgres = isPostgres();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + WIDE_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + WIDE_TABLE
+                + " (id bigint generated by default as identity primary key, name varchar(255) not null, "
+                + "description varchar(255) not null, price numeric(38,2) not null, available boolean not null, category varchar(255) not null, stock bigint not null default 0, "
+                + "updated_at timestamp, change_seq bigint)");
+        jdbcTemplate.execute("CREATE INDEX idx_wide_price ON " + WIDE_TABLE + " (price)");
+        jdbcTemplate.execute("CREATE INDEX idx_wide_available_price ON " + WIDE_TABLE + " (available, price)");
+        jdbcTemplate.execute("CREATE INDEX idx_wide_category_available_price ON " + WIDE_TABLE
+                + " (category, available, price)");
+        try {
+            jdbcTemplate.update("DELETE FROM products");
+            insertRows(jdbcTemplate);
+            if (postgres) {
+                jdbcTemplate.execute("ANALYZE products");
+                jdbcTemplate.execute("ANALYZE " + WIDE_TABLE);
+            }
+
+            String compactRange = "SELECT count(*), sum(price_cents) FROM products "
+                    + "WHERE category = " + Product.Category.TOOLS.getCode() + " AND available = true "
+                    + "AND price_cents <= 2000";
+            String wideRange = "SELECT count(*), sum(price) FROM " + WIDE_TABLE
+                    + " WHERE category = 'TOOLS' AND available = true AND price <= 20.00";
+            String compactFull = "SELECT count(*) FROM products WHERE price_cents > 5000";
+            String wideFull = "SELECT count(*) FROM " + WIDE_TABLE + " WHERE price > 50.00";
+
+            assertEquals(count(jdbcTemplate, wideRange), count(jdbcTemplate, compactRange));
+            assertEquals(count(jdbcTemplate, wideFull), count(jdbcTemplate, compactFull));
+
+            // One untimed round, so neither layout pays for warming up the JIT and caches
+            for (String sql : List.of(compactRange, wideRange, compactFull, wideFull)) {
+                time(jdbcTemplate, sql);
+            }
+            System.out.printf("rows=%d database=%s%n", ROWS, postgres ? "postgresql" : "h2");
+            report(jdbcTemplate, "compact", "products", compactRange, compactFull, postgres);
+            report(jdbcTemplate, "wide", WIDE_TABLE, wideRange, wideFull, postgres);
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + WIDE_TABLE);
+            jdbcTemplate.update("DELETE FROM products");
+        }
+    }
+
+    private void report(JdbcTemplate jdbcTemplate, String layout, String table, String rangeScan, String fullScan,
+                        boolean postgres) {
+        String storage = "";
+        if (postgres) {
+            storage = String.format(" table=%d kB indexes=%d kB range %s full %s",
+                    jdbcTemplate.queryForObject("SELECT pg_table_size(?::regclass)", Long.class, table) / 1024,
+                    jdbcTemplate.queryForObject("SELECT pg_indexes_size(?::regclass)", Long.class, table) / 1024,
+                    buffers(jdbcTemplate, rangeScan), buffers(jdbcTemplate, fullScan));
+        }
+        System.out.printf("%-7s range=%.2f ms/op full=%.2f ms/op%s%n", layout,
+                time(jdbcTemplate, rangeScan), time(jdbcTemplate, fullScan), storage);
+    }
+
+    // Shared buffers the query touched, and the share of them found in the buffer cache
+    private String buffers(JdbcTemplate jdbcTemplate, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class);
+        try {
+            JsonNode root = objectMapper.readTree(plan).get(0).get("Plan");
+            long hit = root.get("Shared Hit Blocks").asLong();
+            long read = root.get("Shared Read Blocks").asLong();
+            long total = hit + read;
+            return String.format("blocks=%d hit=%.1f%%", total, total == 0 ? 100.0 : 100.0 * hit / total);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read plan " + plan, e);
+        }
+    }
+
+    private double time(JdbcTemplate jdbcTemplate, String sql) {
+        // Warm up before measuring
+        for (int i = 0; i < 3; i++) {
+            count(jdbcTemplate, sql);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            count(jdbcTemplate, sql);
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject(sql, (rs, row) -> rs.getLong(1));
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+
+    private void insertRows(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        Product.Category[] categories = Product.Category.values();
+        List<Object[]> compact = new ArrayList<>();
+        List<Object[]> wide = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String name = "Product " + (i % 1000);
+            long cents = random.nextInt(10_000);
+            boolean available = random.nextBoolean();
+            Product.Category category = categories[random.nextInt(categories.length)];
+            compact.add(new Object[] {name, "Benchmark row", cents, available, category.getCode()});
+            wide.add(new Object[] {name, "Benchmark row", BigDecimal.valueOf(cents, 2), available, category.name()});
+            if (compact.size() == 5_000) {
+                flush(jdbcTemplate, compact, wide);
+            }
+        }
+        flush(jdbcTemplate, compact, wide);
+    }
+
+    private void flush(JdbcTemplate jdbcTemplate, List<Object[]> compact, List<Object[]> wide) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (name, description, price_cents, available, category) VALUES (?, ?, ?, ?, ?)",
+                compact);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + WIDE_TABLE + " (name, description, price, available, category) VALUES (?, ?, ?, ?, ?)",
+                wide);
+        compact.clear();
+        wide.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package com.productstore.service.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.productstore.service.json.CompactProductMixin;
+import com.productstore.service.model.Product;
+
+/**
+ * Compares payload size and encode/decode time of JSON against the binary
+ * formats served on /products, for one product and for a large list.
+ */
+public class WireFormatBenchmark {
+
+    private static final int LIST_SIZE = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int ITERATIONS = 20;
+    private static final TypeReference<List<Product>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    public void compareWireFormats() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory())
+                .mixIn(Product.class, CompactProductMixin.class).build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory())
+                .mixIn(Product.class, CompactProductMixin.class).build();
+
+        List<Product> products = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            product.setDescription("Benchmark row " + i);
+            product.setPrice(BigDecimal.valueOf(199 + i % 10_000, 2));
+            product.setAvailable(i % 3 != 0);
+            product.setCategory(Product.Category.values()[i % Product.Category.values().length]);
+            product.setUpdatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(i));
+            products.add(product);
+        }
+
+        long jsonSize = report("json", json, products);
+        assertTrue(report("smile", smile, products) < jsonSize);
+        assertTrue(report("cbor", cbor, products) < jsonSize);
+    }
+
+    // Prints size and average encode/decode time for one product and the whole list; returns the list size
+    private long report(String format, ObjectMapper mapper, List<Product> products) throws Exception {
+        Product single = products.get(0);
+        byte[] one = mapper.writeValueAsBytes(single);
+        byte[] all = mapper.writeValueAsBytes(products);
+
+        // Warm up before measuring
+        for (int i = 0; i < 5; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(products), PRODUCT_LIST);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS * 1000; i++) {
+            mapper.writeValueAsBytes(single);
+        }
+        long encodeOne = (System.nanoTime() - start) / (ITERATIONS * 1000);
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS * 1000; i++) {
+            mapper.readValue(one, Product.class);
+        }
+        long decodeOne = (System.nanoTime() - start) / (ITERATIONS * 1000);
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(products);
+        }
+        long encodeAll = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(products.size(), mapper.readValue(all, PRODUCT_LIST).size());
+        }
+        long decodeAll = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("%-5s single=%d B enc=%.2f us dec=%.2f us | list(%d)=%d KB enc=%.1f ms dec=%.1f ms%n",
+                format, one.length, encodeOne / 1e3, decodeOne / 1e3, products.size(), all.length / 1024,
+                encodeAll / 1e6, decodeAll / 1e6);
+        return all.length;
+    }
+}
@@ -0,0 +1,76 @@
+package com.productstore.service.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+
+import com.productstore.service.controller.ProductController;
+import com.productstore.service.exception.ServiceOverloadedException;
+
+public class LaneBulkheadTest {
+
+    @Test
+    public void testQueuedRequestIsAdmittedWhenSlotFrees() throws Exception {
+        LaneBulkhead bulkhead = new LaneBulkhead(Lane.BULK, 1, 1, 5_000);
+        bulkhead.acquire();
+
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(bulkhead::acquire);
+        while (bulkhead.stats().getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        // Queue is full: the next request is turned away without waiting
+        assertThrows(ServiceOverloadedException.class, bulkhead::acquire);
+
+        Thread.sleep(20);
+        bulkhead.release();
+        queued.get(5, TimeUnit.SECONDS);
+
+        LaneStats stats = bulkhead.stats();
+        assertEquals(2, stats.getAdmitted());
+        assertEquals(1, stats.getRejected());
+        assertEquals(1, stats.getActive());
+        assertTrue(stats.getMaxQueueMillis() >= 20);
+    }
+
+    @Test
+    public void testWaitIsBoundedByMaxWait() {
+        LaneBulkhead bulkhead = new LaneBulkhead(Lane.WRITE, 1, 10, 20);
+        bulkhead.acquire();
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class, bulkhead::acquire);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+    }
+
+    @Test
+    public void testHandlersAreAssignedToLanes() throws Exception {
+        ProductController controller = new ProductController(null);
+        HandlerMethod list = new HandlerMethod(controller, "listProducts",
+                String.class, String.class, Boolean.class);
+        HandlerMethod listTop = new HandlerMethod(controller, "listTopProducts",
+                String.class, String.class, Boolean.class, String.class, Integer.class);
+        HandlerMethod getOne = new HandlerMethod(controller, "getProduct", Long.class);
+        HandlerMethod delete = new HandlerMethod(controller, "deleteProduct", Long.class);
+
+        MockHttpServletRequest byCategory = new MockHttpServletRequest("GET", "/products");
+        byCategory.setParameter("category", "FOOD");
+        MockHttpServletRequest emptyName = new MockHttpServletRequest("GET", "/products");
+        emptyName.setParameter("name", "");
+
+        assertEquals(Lane.BULK, BulkheadInterceptor.laneFor(new MockHttpServletRequest("GET", "/products"), list));
+        assertEquals(Lane.INTERACTIVE, BulkheadInterceptor.laneFor(byCategory, list));
+        // An empty filter lists everything, so it is still a full scan
+        assertEquals(Lane.BULK, BulkheadInterceptor.laneFor(emptyName, list));
+        assertEquals(Lane.INTERACTIVE,
+                BulkheadInterceptor.laneFor(new MockHttpServletRequest("GET", "/products"), listTop));
+        assertEquals(Lane.INTERACTIVE,
+                BulkheadInterceptor.laneFor(new MockHttpServletRequest("GET", "/products/1"), getOne));
+        assertEquals(Lane.WRITE,
+                BulkheadInterceptor.laneFor(new MockHttpServletRequest("DELETE", "/products/1"), delete));
+    }
+}
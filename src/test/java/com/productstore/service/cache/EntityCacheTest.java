@@ -0,0 +1,126 @@
+package com.productstore.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.service.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "product.entity-cache.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class EntityCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private EntityCacheInvalidator invalidator;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testLoadsByIdAreServedFromCache() {
+        Product product = productService.create(newProduct("Cached vase"));
+        entityManagerFactory.getCache().evict(Product.class, product.getId());
+
+        productService.findById(product.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, product.getId()));
+        long hits = statistics.getSecondLevelCacheHitCount();
+        assertEquals("Cached vase", productService.findById(product.getId()).getName());
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+
+        // Multi-gets take cached products from the cache as well
+        Product other = productService.create(newProduct("Cached bowl"));
+        productService.findAllByIds(List.of(product.getId(), other.getId()));
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= hits + 2);
+    }
+
+    @Test
+    public void testUpdateRefreshesLocalCacheAndNotifiesOtherNodes() {
+        List<EntityInvalidation> sent = new CopyOnWriteArrayList<>();
+        // The transport also carries list cache invalidations; only the entity's own count here
+        transport.subscribe(invalidation -> {
+            if (Product.class.getName().equals(invalidation.getEntityName())) {
+                sent.add(invalidation);
+            }
+        });
+        Product product = productService.create(newProduct("Cached lamp"));
+        assertTrue(sent.isEmpty());
+
+        productService.update(product.getId(), newProduct("Cached floor lamp"));
+        assertEquals(1, sent.size());
+        assertEquals(invalidator.getNodeId(), sent.get(0).getOrigin());
+        assertEquals(product.getId(), sent.get(0).getId());
+        // The sender keeps its own entry, now holding the committed change
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, product.getId()));
+        assertEquals("Cached floor lamp", productService.findById(product.getId()).getName());
+
+        productService.delete(product.getId());
+        assertEquals(2, sent.size());
+        assertThrows(ProductNotFoundException.class, () -> productService.findById(product.getId()));
+    }
+
+    @Test
+    public void testInvalidationFromAnotherNodeEvicts() {
+        Product product = productService.create(newProduct("Cached rug"));
+        productService.findById(product.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, product.getId()));
+
+        long received = invalidator.getReceivedCount();
+        transport.publish(new EntityInvalidation("other-node", Product.class.getName(), product.getId()));
+        assertEquals(received + 1, invalidator.getReceivedCount());
+        assertFalse(entityManagerFactory.getCache().contains(Product.class, product.getId()));
+    }
+
+    @Test
+    public void testStockChangeEvictsOnlyThatProduct() {
+        Product stocked = productService.create(newProduct("Cached jug"));
+        Product other = productService.create(newProduct("Cached cup"));
+        productService.findById(stocked.getId());
+        productService.findById(other.getId());
+
+        assertEquals(1, productRepository.addStock(stocked.getId(), 5));
+        assertFalse(entityManagerFactory.getCache().contains(Product.class, stocked.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, other.getId()));
+        assertEquals(stocked.getStock() + 5, productService.findById(stocked.getId()).getStock());
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Entity cache test");
+        product.setPrice(new BigDecimal("19.00"));
+        product.setCategory(Product.Category.HOUSEWARES);
+        return product;
+    }
+}
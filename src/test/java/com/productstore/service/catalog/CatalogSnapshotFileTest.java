@@ -0,0 +1,51 @@
+package com.productstore.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.productstore.service.factory.ProductFactory;
+
+public class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteAndReadRoundTrip() throws IOException {
+        List<CatalogRow> rows = ProductFactory.createProductList(25).stream()
+                .map(p -> new CatalogRow(p.getId(), p.getName(), p.getPrice(), p.getCategory(), p.getAvailable()))
+                .toList();
+        Path path = tempDir.resolve("catalog.snapshot");
+
+        CatalogSnapshotFile.write(path, new CatalogSnapshotFile.Snapshot(4242L, rows));
+        CatalogSnapshotFile.Snapshot snapshot = CatalogSnapshotFile.read(path);
+
+        assertEquals(4242L, snapshot.getToken());
+        assertEquals(rows.size(), snapshot.getRows().size());
+        for (int i = 0; i < rows.size(); i++) {
+            CatalogRow expected = rows.get(i);
+            CatalogRow actual = snapshot.getRows().get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(0, expected.getPrice().compareTo(actual.getPrice()));
+            assertEquals(expected.isAvailable(), actual.isAvailable());
+            assertEquals(expected.getCategory(), actual.getCategory());
+        }
+        assertFalse(Files.exists(tempDir.resolve("catalog.snapshot.tmp")));
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path path = tempDir.resolve("not-a-snapshot");
+        Files.writeString(path, "this is definitely not a catalog snapshot");
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,102 @@
+package com.productstore.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductService;
+import com.productstore.service.sync.ChangeFeed;
+
+@SpringBootTest(properties = {
+        "product.catalog.columnar.enabled=true",
+        "product.changes.tombstone-retention=PT0S"
+})
+public class CatalogSnapshotServiceTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) {
+        registry.add("product.snapshot.path", () -> tempDir.resolve("catalog.snapshot").toString());
+    }
+
+    @Autowired
+    private CatalogSnapshotService snapshotService;
+
+    @Autowired
+    private ColumnarCatalog catalog;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testRestoreAppliesChangesAfterTheSnapshot() {
+        Product repriced = productService.create(newProduct("Snapshot hammer", "10.00"));
+        Product removed = productService.create(newProduct("Snapshot saw", "25.00"));
+        catalog.catchUp();
+        snapshotService.writeSnapshot();
+        CatalogSnapshotFile.Snapshot snapshot = snapshotService.read();
+        assertNotNull(snapshot);
+
+        productService.update(repriced.getId(), newProduct("Snapshot hammer", "12.00"));
+        productService.delete(removed.getId());
+        Product added = productService.create(newProduct("Snapshot drill", "40.00"));
+
+        // Drop what was applied since the snapshot, as a restarted node would not have it
+        catalog.restore(snapshot);
+        assertEquals(0, new BigDecimal("10.00").compareTo(row(repriced.getId()).orElseThrow().getPrice()));
+        assertTrue(row(removed.getId()).isPresent());
+        assertFalse(row(added.getId()).isPresent());
+
+        assertTrue(catalog.catchUp() >= 3);
+        assertEquals(0, new BigDecimal("12.00").compareTo(row(repriced.getId()).orElseThrow().getPrice()));
+        assertFalse(row(removed.getId()).isPresent());
+        assertEquals("Snapshot drill", row(added.getId()).orElseThrow().getName());
+        assertTrue(catalog.snapshot().getToken() > snapshot.getToken());
+    }
+
+    @Test
+    public void testSnapshotOlderThanRetainedDeletionsReloads() {
+        Product removed = productService.create(newProduct("Snapshot ladder", "80.00"));
+        catalog.catchUp();
+        snapshotService.writeSnapshot();
+        CatalogSnapshotFile.Snapshot snapshot = snapshotService.read();
+
+        productService.delete(removed.getId());
+        changeFeed.purgeTombstones();
+        assertTrue(changeFeed.getPurgedThrough() > snapshot.getToken());
+
+        catalog.restore(snapshot);
+        catalog.catchUp();
+
+        assertFalse(row(removed.getId()).isPresent());
+        assertTrue(catalog.snapshot().getToken() >= changeFeed.getPurgedThrough());
+    }
+
+    private Optional<CatalogRow> row(Long id) {
+        return catalog.snapshot().getRows().stream().filter(row -> row.getId() == id).findFirst();
+    }
+
+    private static Product newProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Catalog snapshot test");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(Product.Category.TOOLS);
+        return product;
+    }
+}
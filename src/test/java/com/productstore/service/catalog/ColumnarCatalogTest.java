@@ -0,0 +1,123 @@
+package com.productstore.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.factory.ProductFactory;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.sync.ChangeFeed;
+import com.productstore.service.sync.ChangeSequence;
+
+public class ColumnarCatalogTest {
+
+    private ColumnarCatalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        // No snapshot service, as when snapshots are turned off
+        catalog = new ColumnarCatalog(mock(ProductRepository.class), mock(ChangeFeed.class),
+                mock(ChangeSequence.class),
+                new StaticListableBeanFactory().getBeanProvider(CatalogSnapshotService.class));
+    }
+
+    private Product product(long id, String name, String price, Product.Category category, boolean available) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription("Description");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        product.setAvailable(available);
+        return product;
+    }
+
+    private CatalogQuery query(Product.Category category, Boolean available, long maxPriceCents) {
+        return new CatalogQuery(category, available, Long.MIN_VALUE, maxPriceCents, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testScanFiltersAndSortsByPrice() {
+        catalog.load(List.of(
+                product(1, "Hammer", "19.99", Product.Category.TOOLS, true),
+                product(2, "Wrench", "9.50", Product.Category.TOOLS, true),
+                product(3, "Saw", "45.00", Product.Category.TOOLS, true),
+                product(4, "Drill", "15.00", Product.Category.TOOLS, false),
+                product(5, "Apple", "1.00", Product.Category.FOOD, true)));
+
+        CatalogScanResult result = catalog.scan(query(Product.Category.TOOLS, true, 2000));
+
+        assertEquals(2, result.getTotal());
+        assertEquals(2L, result.getRows().get(0).getId());
+        assertEquals(1L, result.getRows().get(1).getId());
+        assertEquals(0, new BigDecimal("9.50").compareTo(result.getRows().get(0).getPrice()));
+        assertEquals("Wrench", result.getRows().get(0).getName());
+    }
+
+    @Test
+    public void testLimitKeepsTotalCount() {
+        catalog.load(ProductFactory.createProductList(50).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p, (a, b) -> a))
+                .values());
+        int size = catalog.size();
+
+        CatalogScanResult result = catalog.scan(
+                new CatalogQuery(null, null, Long.MIN_VALUE, Long.MAX_VALUE, 5));
+
+        assertEquals(size, result.getTotal());
+        assertEquals(Math.min(5, size), result.getRows().size());
+    }
+
+    @Test
+    public void testParallelScanMatchesSequentialFilter() {
+        List<Product> products = new ArrayList<>();
+        int rows = ColumnarCatalog.SCAN_LEAF_SIZE * 4 + 123;
+        for (int i = 0; i < rows; i++) {
+            Product product = ProductFactory.createProduct();
+            product.setId((long) i);
+            products.add(product);
+        }
+        catalog.load(products);
+
+        CatalogScanResult result = catalog.scan(query(Product.Category.TOOLS, true, 50_000));
+
+        List<Long> expected = products.stream()
+                .filter(p -> p.getCategory() == Product.Category.TOOLS && p.getAvailable())
+                .filter(p -> ColumnarCatalog.toCents(p.getPrice()) <= 50_000)
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        List<Long> actual = result.getRows().stream().map(CatalogRow::getId).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testChangeEventsRefreshIncrementally() {
+        Product hammer = product(1, "Hammer", "19.99", Product.Category.TOOLS, true);
+        Product wrench = product(2, "Wrench", "9.50", Product.Category.TOOLS, true);
+        catalog.load(List.of(hammer, wrench));
+
+        Product moved = new Product(hammer);
+        moved.setCategory(Product.Category.HOUSEWARES);
+        catalog.onProductChanged(ProductChangedEvent.updated(hammer, moved));
+        catalog.onProductChanged(ProductChangedEvent.deleted(wrench));
+        catalog.onProductChanged(ProductChangedEvent.created(
+                product(3, "Saw", "12.00", Product.Category.TOOLS, true)));
+
+        CatalogScanResult tools = catalog.scan(query(Product.Category.TOOLS, null, Long.MAX_VALUE));
+        assertEquals(1, tools.getTotal());
+        assertEquals(3L, tools.getRows().get(0).getId());
+        assertEquals(2, catalog.size());
+    }
+}
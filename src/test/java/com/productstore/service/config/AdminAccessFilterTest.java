@@ -0,0 +1,34 @@
+package com.productstore.service.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+// The recording runs, so only the disabled admin operations stand between a caller and a dump
+@SpringBootTest(properties = "product.jfr.enabled=true")
+@AutoConfigureMockMvc
+public class AdminAccessFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testAdminOperationsAreUnreachableWhenDisabled() throws Exception {
+        mockMvc.perform(post("/admin/jfr/dump").param("minutes", "1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/admin/jfr/dump").header("Authorization", "Bearer anything"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/admin/shards/rebalance"))
+                .andExpect(status().isNotFound());
+
+        // Statistics stay readable
+        mockMvc.perform(get("/admin/bulkheads"))
+                .andExpect(status().isOk());
+    }
+}
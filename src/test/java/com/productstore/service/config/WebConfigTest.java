@@ -0,0 +1,82 @@
+package com.productstore.service.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productstore.service.controller.HomeController;
+
+@WebMvcTest(controllers = HomeController.class)
+public class WebConfigTest {
+
+    private static final Pattern VERSIONED_SCRIPT = Pattern.compile("src=\"(js/rest_api-[0-9a-f]{32}\\.js)\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testIndexLinksToFingerprintedAssets() throws Exception {
+        String html = mockMvc.perform(get("/index.html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getContentAsString();
+
+        Matcher matcher = VERSIONED_SCRIPT.matcher(html);
+        assertTrue(matcher.find(), "rest_api.js link is not fingerprinted");
+
+        mockMvc.perform(get("/" + matcher.group(1)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, allOf(
+                        containsString("max-age=31536000"), containsString("immutable"))));
+    }
+
+    @Test
+    public void testPlainAssetUrlIsRevalidated() throws Exception {
+        mockMvc.perform(get("/js/rest_api.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    public void testStaleFingerprintIsNotServed() throws Exception {
+        mockMvc.perform(get("/js/rest_api-00000000000000000000000000000000.js"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testPrecompressedVariantIsServed() throws Exception {
+        assumeTrue(new ClassPathResource("static/js/jquery-3.6.0.min.js.gz").exists(),
+                "gzip was not available at build time");
+
+        mockMvc.perform(get("/js/jquery-3.6.0.min.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString("Accept-Encoding")));
+    }
+
+    @Test
+    public void testPrecompressedFingerprintedVariantIsImmutable() throws Exception {
+        assumeTrue(new ClassPathResource("static/js/rest_api.js.gz").exists(),
+                "gzip was not available at build time");
+        String html = mockMvc.perform(get("/index.html")).andReturn().getResponse().getContentAsString();
+        Matcher matcher = VERSIONED_SCRIPT.matcher(html);
+        assertTrue(matcher.find(), "rest_api.js link is not fingerprinted");
+
+        mockMvc.perform(get("/" + matcher.group(1)).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+}
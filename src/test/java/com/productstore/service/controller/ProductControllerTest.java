@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -12,15 +13,19 @@ import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.productstore.service.exception.ProductNotFoundException;
 import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductLookup;
+import com.productstore.service.service.ProductQuery;
 import com.productstore.service.service.ProductService;
 
 @WebMvcTest(controllers = ProductController.class)
@@ -203,6 +208,25 @@ public void testListAllProducts() throws Exception {
     verify(productService).findAll();
 }
 
+    @Test
+public void testGetProductsByIds() throws Exception {
+    Product second = createProductFixture();
+    second.setId(2L);
+    ProductLookup lookup = new ProductLookup(Arrays.asList(second, testProduct), List.of(7L));
+
+    when(productService.findAllByIds(List.of(2L, 7L, 1L))).thenReturn(lookup);
+
+    mockMvc.perform(get("/products").param("ids", "2,7,1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.products", hasSize(2)))
+            .andExpect(jsonPath("$.products[0].id").value(2))
+            .andExpect(jsonPath("$.products[1].id").value(1))
+            .andExpect(jsonPath("$.missingIds", contains(7)));
+
+    verify(productService).findAllByIds(List.of(2L, 7L, 1L));
+    verify(productService, never()).findAll();
+}
+
     @Test
 public void testListProductsByName() throws Exception {
     // Create products with specific name
@@ -277,6 +301,40 @@ public void testListProductsByAvailability() throws Exception {
     verify(productService).findByAvailability(isAvailable);
 }
 
+    @Test
+    public void testListProductsSortedAndLimited() throws Exception {
+        when(productService.findTop(any(ProductQuery.class))).thenReturn(List.of(testProduct));
 
-   
-}
\ No newline at end of file
+        mockMvc.perform(get("/products")
+                .param("category", "cloths")
+                .param("available", "true")
+                .param("sort", "price,asc")
+                .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        ArgumentCaptor<ProductQuery> query = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productService).findTop(query.capture());
+        verify(productService, never()).findAll();
+        assertEquals(Product.Category.CLOTHS, query.getValue().getCategory());
+        assertEquals(Boolean.TRUE, query.getValue().getAvailable());
+        assertEquals(Sort.by(Sort.Direction.ASC, "price"), query.getValue().getSort());
+        assertEquals(20, query.getValue().getLimit());
+    }
+
+    @Test
+    public void testListProductsRejectsUnknownCategory() throws Exception {
+        mockMvc.perform(get("/products").param("category", "bogus"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).findAll();
+    }
+
+    @Test
+    public void testListProductsRejectsBadSortAndLimit() throws Exception {
+        mockMvc.perform(get("/products").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("sort", "updatedAt").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).findTop(any());
+    }
+}
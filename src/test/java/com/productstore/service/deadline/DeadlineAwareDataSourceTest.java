@@ -0,0 +1,39 @@
+package com.productstore.service.deadline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class DeadlineAwareDataSourceTest {
+
+    @AfterEach
+    public void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    public void testPoolWaitEndsAtTheDeadline() throws Exception {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:deadline-pool");
+        hikari.setMaximumPoolSize(1);
+        hikari.setConnectionTimeout(Duration.ofSeconds(30).toMillis());
+        try (DeadlineAwareDataSource dataSource = new DeadlineAwareDataSource(hikari);
+             Connection held = dataSource.getConnection()) {
+            assertNotNull(held);
+            Deadline.bind(Deadline.after(Duration.ofMillis(300)));
+            long started = System.nanoTime();
+            assertThrows(SQLException.class, dataSource::getConnection);
+            assertTrue(Duration.ofNanos(System.nanoTime() - started).toSeconds() < 5);
+
+            // Once the deadline has passed the pool is not waited on at all
+            assertThrows(SQLException.class, dataSource::getConnection);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.productstore.service.deadline;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productstore.service.exception.DeadlineExceededException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class DeadlineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    public void testTransactionTimeoutIsCappedByDeadline() {
+        Deadline.bind(Deadline.after(Duration.ofMillis(1500)));
+
+        long ttl = new TransactionTemplate(transactionManager).execute(status -> {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            assertTrue(holder.hasTimeout());
+            return holder.getTimeToLiveInMillis();
+        });
+        assertTrue(ttl <= 2000, "timeout was " + ttl + " ms");
+    }
+
+    @Test
+    public void testExpiredDeadlineFailsBeforeBeginning() {
+        Deadline.bind(Deadline.after(Duration.ZERO));
+
+        assertThrows(DeadlineExceededException.class,
+                () -> new TransactionTemplate(transactionManager).execute(status -> null));
+    }
+
+    @Test
+    public void testExhaustedClientBudgetIsAnsweredWithGatewayTimeout() throws Exception {
+        mockMvc.perform(get("/products").header(DeadlineInterceptor.TIMEOUT_HEADER, "0"))
+                .andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/products").header(DeadlineInterceptor.TIMEOUT_HEADER, "5000"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,132 @@
+package com.productstore.service.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest(properties = {
+        "product.jfr.enabled=true",
+        "product.admin.operations.enabled=true",
+        "product.admin.token=test-admin-token"
+})
+@AutoConfigureMockMvc
+public class FlightRecorderTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testEventsCarryOperationDetails() throws Exception {
+        Product product = productService.create(newProduct("Recorded kettle"));
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(ProductOperationEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(ProductRequestEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            productService.findByCategory(Product.Category.HOUSEWARES);
+            productService.findByCategory(Product.Category.HOUSEWARES);
+            mockMvc.perform(get("/products/{id}", product.getId())).andExpect(status().isOk());
+            assertThrows(ProductNotFoundException.class, () -> productService.findById(Long.MAX_VALUE));
+            recording.stop();
+            Path file = Files.createTempFile("flight-recorder-test", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        List<RecordedEvent> operations = ofType(events, "com.productstore.ProductOperation");
+        List<RecordedEvent> byCategory = operations.stream()
+                .filter(e -> "findByCategory".equals(e.getString("operation")))
+                .toList();
+        assertTrue(byCategory.size() >= 2);
+        RecordedEvent last = byCategory.get(byCategory.size() - 1);
+        assertEquals("category=HOUSEWARES", last.getString("filter"));
+        assertTrue(last.getInt("rowCount") >= 1);
+        // The first call may have loaded the list, the second is answered from it
+        assertTrue(last.getBoolean("cacheHit"));
+
+        List<RecordedEvent> requests = ofType(events, "com.productstore.ProductRequest");
+        assertEquals(1, requests.size());
+        RecordedEvent request = requests.get(0);
+        assertEquals("GET", request.getString("method"));
+        assertEquals("/products/{productId}", request.getString("route"));
+        assertEquals("ProductController.getProduct", request.getString("handler"));
+        assertEquals(200, request.getInt("status"));
+        assertTrue(operations.stream().anyMatch(e -> "findById".equals(e.getString("operation"))
+                && !e.getBoolean("failed")));
+        // A call that throws is still recorded, as failed
+        assertTrue(operations.stream().anyMatch(e -> "findById".equals(e.getString("operation"))
+                && e.getBoolean("failed")));
+    }
+
+    @Test
+    public void testDumpReturnsContinuousRecording() throws Exception {
+        mockMvc.perform(post("/admin/jfr/dump").param("minutes", "1"))
+                .andExpect(status().isUnauthorized());
+        MvcResult started = mockMvc.perform(post("/admin/jfr/dump").param("minutes", "1")
+                        .header("Authorization", "Bearer test-admin-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/octet-stream"))
+                .andReturn().getResponse().getContentAsByteArray();
+        // Every chunk of a JFR file starts with the FLR magic
+        assertArrayEquals("FLR\0".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(body, 4));
+
+        // Nothing that copies the environment or system properties leaves the process
+        Path file = Files.createTempFile("flight-recorder-dump", ".jfr");
+        try {
+            Files.write(file, body);
+            assertTrue(RecordingFile.readAllEvents(file).stream().map(e -> e.getEventType().getName())
+                    .noneMatch(name -> name.equals("jdk.InitialEnvironmentVariable")
+                            || name.equals("jdk.InitialSystemProperty")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Flight recorder test");
+        product.setPrice(new BigDecimal("29.00"));
+        product.setCategory(Product.Category.HOUSEWARES);
+        return product;
+    }
+}
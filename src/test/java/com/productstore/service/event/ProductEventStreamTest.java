@@ -0,0 +1,130 @@
+package com.productstore.service.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.productstore.service.model.Product;
+
+public class ProductEventStreamTest {
+
+    private ProductEventStream stream;
+
+    @BeforeEach
+    public void setUp() {
+        stream = new ProductEventStream(new ObjectMapper().registerModule(new JavaTimeModule()), 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    private Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Hammer");
+        product.setDescription("Steel");
+        product.setPrice(new BigDecimal("12.50"));
+        return product;
+    }
+
+    // Emitter that records frames and can be made to stall like a slow client. Send and complete
+    // hold the same lock, as they do in ResponseBodyEmitter
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+        final CountDownLatch received;
+        final CountDownLatch completed = new CountDownLatch(1);
+        final ReentrantLock lock = new ReentrantLock();
+
+        RecordingEmitter(CountDownLatch release, int expectedFrames) {
+            this.release = release;
+            this.received = new CountDownLatch(expectedFrames);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            lock.lock();
+            try {
+                release.await();
+                StringBuilder frame = new StringBuilder();
+                items.forEach(item -> frame.append(item.getData()));
+                frames.add(frame.toString());
+                received.countDown();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void complete() {
+            lock.lock();
+            try {
+                completed.countDown();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Test
+    public void testEventsAreDeliveredToEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0), 1);
+        RecordingEmitter second = new RecordingEmitter(new CountDownLatch(0), 1);
+        stream.register(first);
+        stream.register(second);
+
+        stream.onProductChanged(ProductChangedEvent.created(product(7)));
+
+        assertTrue(first.received.await(5, TimeUnit.SECONDS));
+        assertTrue(second.received.await(5, TimeUnit.SECONDS));
+        assertTrue(first.frames.get(0).contains("event:CREATED"));
+        assertTrue(first.frames.get(0).contains("\"productId\":7"));
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    public void testSlowSubscriberIsEvicted() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stalled, 1);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0), 5);
+        stream.register(slow);
+        stream.register(fast);
+
+        // Publishing never waits for the stalled subscriber, which is evicted while its send is blocked
+        for (long id = 1; id <= 5; id++) {
+            stream.onProductChanged(ProductChangedEvent.created(product(id)));
+            // Let the fast subscriber keep up so only the stalled one overflows
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (fast.frames.size() < id && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(1, stream.getEvictionCount());
+        assertEquals(1, slow.completed.getCount());
+        stalled.countDown();
+
+        assertTrue(fast.received.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, slow.frames.size());
+        assertEquals(1, stream.getSubscriberCount());
+    }
+}
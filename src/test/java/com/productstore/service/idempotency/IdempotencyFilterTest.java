@@ -0,0 +1,187 @@
+package com.productstore.service.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.limit.ClientIdentity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class IdempotencyFilterTest {
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    public void setUp() {
+        store = new InMemoryIdempotencyStore(100, Duration.ofHours(1), Clock.systemUTC());
+        filter = new IdempotencyFilter(store, new ObjectMapper(), Duration.ofSeconds(5),
+                new ClientIdentity("X-Client"), 1024);
+        executions = new AtomicInteger();
+    }
+
+    private MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Echoes the request body back as a 201, counting how often it runs
+    private FilterChain creating(CountDownLatch release) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setHeader("Location", "/products/1");
+            http.setContentType("application/json");
+            http.getOutputStream().write(request.getInputStream().readAllBytes());
+        };
+    }
+
+    @Test
+    public void testRetryIsReplayedWithoutExecuting() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"name\":\"A\"}"), first, creating(null));
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"name\":\"A\"}"), retry, creating(null));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("/products/1", retry.getHeader("Location"));
+        assertEquals("{\"name\":\"A\"}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"name\":\"A\"}", first.getContentAsString());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        filter.doFilter(post("key-1", "{\"name\":\"A\"}"), new MockHttpServletResponse(), creating(null));
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"name\":\"B\"}"), other, creating(null));
+
+        assertEquals(1, executions.get());
+        assertEquals(422, other.getStatus());
+    }
+
+    @Test
+    public void testConcurrentDuplicateWaitsForOriginal() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(post("key-2", "{}"), original, creating(release));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (executions.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        MockHttpServletResponse duplicate = new MockHttpServletResponse();
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(post("key-2", "{}"), duplicate, creating(null));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, executions.get());
+        assertEquals(201, duplicate.getStatus());
+    }
+
+    @Test
+    public void testKeysAreScopedPerClient() throws Exception {
+        MockHttpServletRequest first = post("shared-key", "{\"name\":\"A\"}");
+        first.addHeader("X-Client", "alice");
+        filter.doFilter(first, new MockHttpServletResponse(), creating(null));
+        MockHttpServletRequest second = post("shared-key", "{\"name\":\"B\"}");
+        second.addHeader("X-Client", "bob");
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(second, other, creating(null));
+
+        // The same key from another client is a new request, not a mismatch or a replay
+        assertEquals(2, executions.get());
+        assertEquals(201, other.getStatus());
+        assertEquals("{\"name\":\"B\"}", other.getContentAsString());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void testOversizedBodyIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("key-4", "x".repeat(1025)), response, creating(null));
+
+        assertEquals(0, executions.get());
+        assertEquals(413, response.getStatus());
+        assertEquals(0, store.size());
+
+        // A body at the limit is still accepted
+        filter.doFilter(post("key-4", "x".repeat(1024)), new MockHttpServletResponse(), creating(null));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testServerErrorsAreNotStored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+        filter.doFilter(post("key-3", "{}"), new MockHttpServletResponse(), failing);
+        filter.doFilter(post("key-3", "{}"), new MockHttpServletResponse(), creating(null));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testStoreExpiresAndBoundsEntries() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        InMemoryIdempotencyStore bounded = new InMemoryIdempotencyStore(2, Duration.ofMinutes(1),
+                Clock.fixed(now, ZoneOffset.UTC));
+        assertNull(bounded.claim("a"));
+        assertNull(bounded.claim("b"));
+        assertNotNull(bounded.claim("a"));
+        assertNull(bounded.claim("c"));
+        assertEquals(2, bounded.size());
+        // The oldest key was dropped to make room
+        assertNull(bounded.claim("a"));
+
+        // Entries with no time to live are gone by the next claim
+        InMemoryIdempotencyStore expiring = new InMemoryIdempotencyStore(10, Duration.ZERO,
+                Clock.fixed(now, ZoneOffset.UTC));
+        assertNull(expiring.claim("a"));
+        assertNull(expiring.claim("a"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.productstore.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class StockCounterTest {
+
+    @Test
+    public void testReserveAndRelease() {
+        StockCounter counter = new StockCounter(10, 4);
+
+        assertTrue(counter.tryReserve(7));
+        assertFalse(counter.tryReserve(4));
+        assertEquals(3, counter.available());
+
+        counter.release(5);
+        assertTrue(counter.tryReserve(8));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    public void testReservationLargerThanAnyStripeUsesPooledStock() {
+        StockCounter counter = new StockCounter(8, 8);
+
+        assertTrue(counter.tryReserve(8));
+        assertFalse(counter.tryReserve(1));
+    }
+
+    @Test
+    public void testConcurrentBuyersNeverOversell() throws Exception {
+        int stock = 20_000;
+        StockCounter counter = new StockCounter(stock, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> buyers = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            buyers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Each buyer keeps going until the counter is sold out
+                for (int attempt = 0; attempt < stock; attempt++) {
+                    if (counter.tryReserve(1 + attempt % 3)) {
+                        reserved.addAndGet(1 + attempt % 3);
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread buyer : buyers) {
+            buyer.join();
+        }
+
+        assertEquals(stock, reserved.get() + counter.available());
+        assertTrue(counter.available() >= 0);
+    }
+}
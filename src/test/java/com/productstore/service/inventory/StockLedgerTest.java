@@ -0,0 +1,150 @@
+package com.productstore.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.productstore.service.exception.InsufficientStockException;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.repository.StockCheckpointRepository;
+import com.productstore.service.repository.StockLeaseRepository;
+
+@SpringBootTest
+public class StockLedgerTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLeaseRepository leaseRepository;
+
+    @Autowired
+    private StockCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    @TempDir
+    Path otherJournalDir;
+
+    private Product product;
+
+    @BeforeEach
+    public void setUp() {
+        product = new Product();
+        product.setName("Ledger product");
+        product.setDescription("Stock under test");
+        product.setPrice(new BigDecimal("5.00"));
+        product.setStock(10L);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteById(product.getId());
+    }
+
+    private StockLedger newLedger() throws Exception {
+        return newLedger(journalDir, 100);
+    }
+
+    private StockLedger newLedger(Path journal, long leaseSize) {
+        StockLedger ledger = new StockLedger(productRepository, leaseRepository, checkpointRepository,
+                transactionManager, 4, leaseSize, journal.toString());
+        ledger.start();
+        return ledger;
+    }
+
+    // The pool plus the units leased to every node
+    private long persistedStock() {
+        return productRepository.findStockById(product.getId()).orElseThrow()
+                + leaseRepository.sumUnitsByProductId(product.getId());
+    }
+
+    @Test
+    public void testChangesAreWrittenBehindInOneFlush() throws Exception {
+        StockLedger ledger = newLedger();
+        ledger.reserve(product.getId(), 3);
+        ledger.reserve(product.getId(), 4);
+        ledger.release(product.getId(), 2);
+        assertThrows(InsufficientStockException.class, () -> ledger.reserve(product.getId(), 6));
+
+        assertEquals(5, ledger.available(product.getId()));
+        assertEquals(10, persistedStock());
+
+        // Journaled changes are already summed per product; wait for the writer to hand them over
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (ledger.getFlushedRowCount() == 0 && System.currentTimeMillis() < deadline) {
+            ledger.flush();
+            Thread.sleep(10);
+        }
+        assertEquals(1, ledger.getFlushedRowCount());
+        assertEquals(5, persistedStock());
+        ledger.shutdown();
+    }
+
+    @Test
+    public void testJournaledChangesAreReplayedAfterCrash() throws Exception {
+        StockLedger crashed = newLedger();
+        crashed.reserve(product.getId(), 4);
+        crashed.release(product.getId(), 1);
+        // Both changes are durable once the calls return; nothing was flushed
+        assertEquals(10, persistedStock());
+
+        StockLedger restarted = newLedger();
+        assertEquals(7, persistedStock());
+        assertEquals(7, restarted.available(product.getId()));
+
+        // Replay is not repeated on a later start
+        newLedger().shutdown();
+        assertEquals(7, persistedStock());
+        restarted.shutdown();
+    }
+
+    @Test
+    public void testTwoNodesCannotOversell() throws Exception {
+        StockLedger first = newLedger(journalDir, 2);
+        StockLedger second = newLedger(otherJournalDir, 2);
+        int reserved = 0;
+        for (int i = 0; i < 10; i++) {
+            for (StockLedger ledger : new StockLedger[] {first, second}) {
+                try {
+                    ledger.reserve(product.getId(), 1);
+                    reserved++;
+                } catch (InsufficientStockException e) {
+                    // Sold out, or the units left are leased to the other node
+                }
+            }
+        }
+        assertTrue(reserved <= 10);
+
+        // Idle holdings return their units, after which the other node can sell them
+        for (int i = 0; i < 3; i++) {
+            first.flush();
+            second.flush();
+        }
+        assertEquals(0, first.getHoldingCount());
+        assertEquals(0, second.getHoldingCount());
+        while (reserved < 10) {
+            second.reserve(product.getId(), 1);
+            reserved++;
+        }
+        assertThrows(InsufficientStockException.class, () -> first.reserve(product.getId(), 1));
+        first.shutdown();
+        second.shutdown();
+        assertEquals(0, persistedStock());
+    }
+}
@@ -0,0 +1,87 @@
+package com.productstore.service.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductService;
+
+@SpringBootTest(properties = "product.json-cache.enabled=true")
+@AutoConfigureMockMvc
+public class ProductJsonCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductJsonCache cache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testCachedBytesMatchJackson() throws Exception {
+        Product product = productService.create(newProduct("Cached lamp", "10.50"));
+
+        for (int i = 0; i < 2; i++) {
+            byte[] body = mockMvc.perform(get("/products/{id}", product.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/json"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertArrayEquals(objectMapper.writeValueAsBytes(productService.findById(product.getId())), body);
+        }
+        assertTrue(cache.getHitCount() >= 1);
+
+        byte[] list = mockMvc.perform(get("/products").param("name", "Cached lamp"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(objectMapper.writeValueAsBytes(productService.findByName("Cached lamp")), list);
+    }
+
+    @Test
+    public void testChangedProductIsSerializedAgain() throws Exception {
+        Product product = productService.create(newProduct("Changing lamp", "20.00"));
+        byte[] before = cache.toJson(productService.findById(product.getId()));
+
+        // A stale copy must not be answered from bytes cached for the current row, nor the reverse
+        Product stale = new Product(productService.findById(product.getId()));
+        productService.update(product.getId(), newProduct("Changing lamp", "25.00"));
+        Product current = productService.findById(product.getId());
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(current), cache.toJson(current));
+        assertArrayEquals(before, cache.toJson(stale));
+        assertArrayEquals(objectMapper.writeValueAsBytes(current), cache.toJson(current));
+    }
+
+    @Test
+    public void testDeleteEvictsEntry() throws Exception {
+        Product product = productService.create(newProduct("Deleted lamp", "5.00"));
+        cache.toJson(productService.findById(product.getId()));
+        int size = cache.size();
+
+        productService.delete(product.getId());
+        assertEquals(size - 1, cache.size());
+    }
+
+    private static Product newProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Desk lamp");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(Product.Category.HOUSEWARES);
+        return product;
+    }
+}
@@ -0,0 +1,89 @@
+package com.productstore.service.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class WireFormatTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testSmileEncodesPriceAsCentsAndCategoryAsCode() throws Exception {
+        Product product = productService.create(newProduct("Smile kettle", "12.34", Product.Category.HOUSEWARES));
+
+        byte[] body = mockMvc.perform(get("/products/{id}", product.getId()).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals(1234, node.get("price").asLong());
+        assertTrue(node.get("price").isIntegralNumber());
+        assertEquals(Product.Category.HOUSEWARES.getCode(), node.get("category").asInt());
+        assertEquals("Smile kettle", node.get("name").asText());
+    }
+
+    @Test
+    public void testCborRoundTrip() throws Exception {
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory())
+                .mixIn(Product.class, CompactProductMixin.class).build();
+        byte[] request = cbor.writeValueAsBytes(newProduct("Cbor drill", "99.90", Product.Category.TOOLS));
+
+        byte[] body = mockMvc.perform(post("/products").contentType(CBOR).accept(CBOR).content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Product created = cbor.readValue(body, Product.class);
+        assertEquals(0, new BigDecimal("99.90").compareTo(created.getPrice()));
+        assertEquals(Product.Category.TOOLS, created.getCategory());
+        assertEquals(Product.Category.TOOLS, productService.findById(created.getId()).getCategory());
+    }
+
+    @Test
+    public void testJsonRemainsDefault() throws Exception {
+        Product product = productService.create(newProduct("Json kettle", "5.00", Product.Category.HOUSEWARES));
+
+        mockMvc.perform(get("/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.category").value("HOUSEWARES"));
+    }
+
+    private static Product newProduct(String name, String price, Product.Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Wire format test");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        return product;
+    }
+}
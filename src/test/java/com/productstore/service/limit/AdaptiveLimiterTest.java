@@ -0,0 +1,106 @@
+package com.productstore.service.limit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.productstore.service.exception.RateLimitedException;
+import com.productstore.service.exception.ServiceOverloadedException;
+
+public class AdaptiveLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testRejectsBeyondLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 0.5, 2.0, clock::get);
+        limiter.acquire();
+        limiter.acquire();
+        assertThrows(ServiceOverloadedException.class, limiter::acquire);
+
+        LimiterStats stats = limiter.stats(0);
+        assertEquals(2, stats.getInFlight());
+        assertEquals(2, stats.getAdmitted());
+        assertEquals(1, stats.getRejected());
+    }
+
+    @Test
+    public void testGrowsWhileFastAndBacksOffOncePerEpisode() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 100, 0.5, 2.0, clock::get);
+        for (int i = 0; i < 6; i++) {
+            runConcurrently(limiter, limiter.getLimit(), 10);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 4, "limit should grow while latency is at baseline, was " + grown);
+
+        // Every request of one congested round is slow, but the limit halves only once
+        runConcurrently(limiter, grown, 100);
+        assertEquals(grown / 2, limiter.getLimit());
+    }
+
+    @Test
+    public void testDroppedRequestsBackOffToMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 3, 100, 0.5, 2.0, clock::get);
+        for (int i = 0; i < 10; i++) {
+            long start = limiter.acquire();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            limiter.complete(start, true);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void testTokenBucketRefills() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(2, 2, 100, clock::get);
+        rateLimiter.acquire("a");
+        rateLimiter.acquire("a");
+        RateLimitedException ex = assertThrows(RateLimitedException.class, () -> rateLimiter.acquire("a"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        // Other clients have their own buckets
+        rateLimiter.acquire("b");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimiter.acquire("a");
+        assertEquals(1, rateLimiter.getLimitedCount());
+    }
+
+    @Test
+    public void testIdleClientsAreForgotten() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, 2, clock::get);
+        rateLimiter.acquire("a");
+        rateLimiter.acquire("b");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        rateLimiter.acquire("c");
+        // a's bucket was dropped while idle, so a starts over with a full bucket
+        rateLimiter.acquire("a");
+        assertThrows(RateLimitedException.class, () -> rateLimiter.acquire("c"));
+    }
+
+    @Test
+    public void testLeastRecentlySeenClientIsDropped() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, 2, clock::get);
+        rateLimiter.acquire("a");
+        rateLimiter.acquire("b");
+        assertThrows(RateLimitedException.class, () -> rateLimiter.acquire("a"));
+        // Seeing a again made b the eldest, so c displaces b and a stays limited
+        rateLimiter.acquire("c");
+        assertThrows(RateLimitedException.class, () -> rateLimiter.acquire("a"));
+        rateLimiter.acquire("b");
+    }
+
+    // Starts n requests together and completes them all after the given latency
+    private void runConcurrently(AdaptiveLimiter limiter, int n, long latencyMillis) {
+        long[] starts = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = limiter.acquire();
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        for (long start : starts) {
+            limiter.complete(start, false);
+        }
+    }
+}
@@ -197,5 +197,26 @@ public void testFindByCategory() {
     }
 }
 
+    @Test
+    public void testPriceAndCategoryAreStoredAsCodes() {
+        Product product = ProductFactory.createProduct();
+        product.setId(null);
+        product.setPrice(new BigDecimal("12.345"));
+        product.setCategory(Product.Category.TOOLS);
+        productRepository.saveAndFlush(product);
+        entityManager.clear();
+
+        Object[] row = (Object[]) entityManager.getEntityManager()
+                .createNativeQuery("select price_cents, category from products where id = ?1")
+                .setParameter(1, product.getId())
+                .getSingleResult();
+        assertEquals(1235L, ((Number) row[0]).longValue());
+        assertEquals(Product.Category.TOOLS.getCode(), ((Number) row[1]).shortValue());
 
-}
\ No newline at end of file
+        // Read back with two decimals, as from the numeric column before
+        Product found = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(new BigDecimal("12.35"), found.getPrice());
+        assertEquals(Product.Category.TOOLS, found.getCategory());
+        assertEquals(1, productRepository.findByPrice(new BigDecimal("12.35")).size());
+    }
+}
@@ -0,0 +1,179 @@
+package com.productstore.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.OutboxRelayLease;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.OutboxEventRepository;
+import com.productstore.service.repository.OutboxRelayLeaseRepository;
+import com.productstore.service.service.ProductService;
+
+@SpringBootTest(properties = {
+        "product.outbox.enabled=true",
+        "product.outbox.poll-interval=PT0.05S"
+})
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class SinkConfig {
+
+        @Bean
+        @Primary
+        FlakySink flakySink() {
+            return new FlakySink();
+        }
+    }
+
+    // Fails as many publishes as requested before delivering again
+    static class FlakySink implements OutboxSink {
+
+        private final InMemoryOutboxSink delivered = new InMemoryOutboxSink();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void publish(List<OutboxMessage> batch) throws IOException {
+            if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IOException("Sink unavailable");
+            }
+            delivered.publish(batch);
+        }
+
+        List<OutboxMessage> getMessages() {
+            return delivered.getMessages();
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlakySink sink;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private OutboxRelayLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        sink.failuresLeft.set(0);
+        sink.delivered.clear();
+    }
+
+    @Test
+    public void testChangesArePublishedInOrderAndRemoved() throws InterruptedException {
+        Product product = productService.create(newProduct("Outbox kettle"));
+        productService.update(product.getId(), newProduct("Outbox steel kettle"));
+        productService.delete(product.getId());
+
+        List<OutboxMessage> messages = awaitMessages(product.getId(), 3);
+        assertEquals(List.of(ProductChangedEvent.Type.CREATED, ProductChangedEvent.Type.UPDATED,
+                ProductChangedEvent.Type.DELETED), messages.stream().map(OutboxMessage::getType).toList());
+        assertTrue(messages.get(0).getId() < messages.get(1).getId());
+        assertTrue(messages.get(1).getId() < messages.get(2).getId());
+        assertTrue(messages.get(1).getProduct().contains("Outbox steel kettle"));
+        assertNull(messages.get(2).getProduct());
+
+        relay.relay();
+        assertEquals(0, outboxRepository.count());
+        OutboxStats stats = relay.stats();
+        assertTrue(stats.getPublished() >= 3);
+        assertEquals(0, stats.getPending());
+    }
+
+    @Test
+    public void testRolledBackWriteLeavesNothingToPublish() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long[] id = new Long[1];
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            id[0] = productService.create(newProduct("Outbox rolled back")).getId();
+            throw new IllegalStateException("Abort");
+        }));
+
+        // A later committed write is published, the rolled back one never is
+        Product committed = productService.create(newProduct("Outbox committed"));
+        awaitMessages(committed.getId(), 1);
+        relay.relay();
+        assertTrue(sink.getMessages().stream().noneMatch(m -> m.getProductId().equals(id[0])));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    public void testFailedPublishIsRetriedInOrder() throws InterruptedException {
+        long failures = relay.stats().getFailures();
+        sink.failuresLeft.set(2);
+        Product product = productService.create(newProduct("Outbox teapot"));
+        productService.update(product.getId(), newProduct("Outbox glass teapot"));
+
+        List<OutboxMessage> messages = awaitMessages(product.getId(), 2);
+        assertEquals(ProductChangedEvent.Type.CREATED, messages.get(0).getType());
+        assertEquals(ProductChangedEvent.Type.UPDATED, messages.get(1).getType());
+        assertTrue(relay.stats().getFailures() >= failures + 2);
+    }
+
+    @Test
+    public void testOnlyTheLeaseHolderPublishes() throws InterruptedException {
+        // A relay of a second node, driven by hand instead of its own thread
+        InMemoryOutboxSink standbySink = new InMemoryOutboxSink();
+        OutboxRelay standby = new OutboxRelay(outboxRepository, leaseRepository, standbySink, 500,
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+        Product product = productService.create(newProduct("Outbox jug"));
+        awaitMessages(product.getId(), 1);
+        assertTrue(relay.stats().isLeaseHeld());
+
+        productService.update(product.getId(), newProduct("Outbox stone jug"));
+        assertEquals(0, standby.relay());
+        assertTrue(standbySink.getMessages().isEmpty());
+        assertFalse(standby.stats().isLeaseHeld());
+        awaitMessages(product.getId(), 2);
+        assertEquals(relay.getNodeId(), leaseRepository.findById(OutboxRelayLease.ID).orElseThrow().getOwner());
+    }
+
+    private List<OutboxMessage> awaitMessages(Long productId, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<OutboxMessage> messages;
+        do {
+            messages = sink.getMessages().stream().filter(m -> m.getProductId().equals(productId)).toList();
+            if (messages.size() >= count) {
+                return messages;
+            }
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        fail("Expected " + count + " messages for product " + productId + " but got " + messages.size());
+        return messages;
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Outbox test");
+        product.setPrice(new BigDecimal("24.00"));
+        product.setCategory(Product.Category.HOUSEWARES);
+        return product;
+    }
+}
@@ -0,0 +1,146 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.model.Product;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CompositeQueryServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testRunsSubQueriesAndReportsEachOutcome() throws Exception {
+        Product product = productService.create(newProduct("Composite saw", "30.00"));
+        productService.create(newProduct("Composite drill", "20.00"));
+
+        String body = "["
+                + "{\"key\":\"product\",\"type\":\"BY_ID\",\"id\":" + product.getId() + "},"
+                + "{\"key\":\"related\",\"type\":\"TOP\",\"category\":\"TOOLS\",\"sort\":\"price\",\"limit\":5},"
+                + "{\"key\":\"missing\",\"type\":\"BY_ID\",\"id\":987654321},"
+                + "{\"key\":\"invalid\",\"type\":\"BY_NAME\"},"
+                + "{\"key\":\"sameCategory\",\"type\":\"BY_CATEGORY\",\"category\":\"TOOLS\",\"limit\":1},"
+                + "{\"key\":\"inStock\",\"type\":\"BY_AVAILABILITY\",\"available\":true,\"limit\":2}"
+                + "]";
+        mockMvc.perform(post("/products/query").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.product.status").value(200))
+                .andExpect(jsonPath("$.product.result.name").value("Composite saw"))
+                .andExpect(jsonPath("$.related.status").value(200))
+                .andExpect(jsonPath("$.related.result").isArray())
+                .andExpect(jsonPath("$.missing.status").value(404))
+                .andExpect(jsonPath("$.invalid.status").value(400))
+                .andExpect(jsonPath("$.sameCategory.status").value(200))
+                .andExpect(jsonPath("$.sameCategory.result.length()").value(1))
+                .andExpect(jsonPath("$.inStock.status").value(200))
+                .andExpect(jsonPath("$.inStock.result.length()").value(2));
+    }
+
+    @Test
+    public void testRejectsDuplicateKeys() throws Exception {
+        String body = "[{\"key\":\"a\",\"type\":\"BY_ID\",\"id\":1},{\"key\":\"a\",\"type\":\"BY_ID\",\"id\":2}]";
+        mockMvc.perform(post("/products/query").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSubQueriesRunConcurrentlyAndAreCancelledAtDeadline() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ProductService blocking = mock(ProductService.class);
+        when(blocking.findById(anyLong())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            // Only returns if the other sub-query runs at the same time
+            if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Sub-queries ran one after the other");
+            }
+            if (invocation.<Long>getArgument(0) == 2) {
+                Thread.sleep(10_000);
+            }
+            return new Product();
+        });
+        CompositeQueryService service = new CompositeQueryService(blocking, 8, 2, Duration.ofSeconds(5));
+
+        Deadline.bind(Deadline.after(Duration.ofMillis(500)));
+        long start = System.nanoTime();
+        Map<String, SubQueryResult> results;
+        try {
+            results = service.execute(List.of(byId("fast", 1), byId("slow", 2)));
+        } finally {
+            Deadline.clear();
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        assertEquals(List.of("fast", "slow"), List.copyOf(results.keySet()));
+        assertEquals(200, results.get("fast").getStatus());
+        assertEquals(504, results.get("slow").getStatus());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareBoundedPermits() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ProductService counting = mock(ProductService.class);
+        when(counting.findById(anyLong())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return new Product();
+        });
+        CompositeQueryService service = new CompositeQueryService(counting, 8, 2, Duration.ofSeconds(5));
+
+        List<CompletableFuture<Map<String, SubQueryResult>>> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> service.execute(
+                    List.of(byId("a", 1), byId("b", 2), byId("c", 3)))));
+        }
+        for (CompletableFuture<Map<String, SubQueryResult>> request : requests) {
+            assertTrue(request.get(10, TimeUnit.SECONDS).values().stream()
+                    .allMatch(result -> result.getStatus() == 200));
+        }
+        assertTrue(peak.get() <= 2);
+    }
+
+    private static SubQuery byId(String key, long id) {
+        SubQuery query = new SubQuery();
+        query.setKey(key);
+        query.setType(SubQuery.Type.BY_ID);
+        query.setId(id);
+        return query;
+    }
+
+    private static Product newProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Composite query test");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(Product.Category.TOOLS);
+        return product;
+    }
+}
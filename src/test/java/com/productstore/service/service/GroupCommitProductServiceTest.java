@@ -0,0 +1,93 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.productstore.service.deadline.Deadline;
+import com.productstore.service.exception.DeadlineExceededException;
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+
+@SpringBootTest(properties = {
+        "product.write.group-commit.enabled=true",
+        "product.write.group-commit.max-wait=20ms"
+})
+public class GroupCommitProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Group commit");
+        product.setPrice(new BigDecimal("3.50"));
+        return product;
+    }
+
+    @Test
+    public void testConcurrentWritesShareCommitsAndFailIndividually() throws Exception {
+        GroupCommitProductService groupCommit = assertInstanceOf(GroupCommitProductService.class, productService);
+        long batchesBefore = groupCommit.getBatchCount();
+        long writesBefore = groupCommit.getWriteCount();
+        Product existing = productRepository.save(product("Existing"));
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<Product>> creates = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                Product product = product("Grouped " + i);
+                creates.add(CompletableFuture.supplyAsync(() -> productService.create(product), callers));
+            }
+            Product renamed = product("Renamed");
+            CompletableFuture<Product> update = CompletableFuture.supplyAsync(
+                    () -> productService.update(existing.getId(), renamed), callers);
+            CompletableFuture<Product> missing = CompletableFuture.supplyAsync(
+                    () -> productService.update(Long.MAX_VALUE, renamed), callers);
+
+            for (CompletableFuture<Product> create : creates) {
+                assertNotNull(create.get().getId());
+            }
+            assertEquals("Renamed", update.get().getName());
+            ExecutionException failure = assertThrows(ExecutionException.class, missing::get);
+            assertInstanceOf(ProductNotFoundException.class, failure.getCause());
+        } finally {
+            callers.shutdown();
+        }
+
+        assertEquals(32, productRepository.findAll().stream()
+                .filter(p -> p.getName().startsWith("Grouped ")).count());
+        assertEquals("Renamed", productRepository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals(34, groupCommit.getWriteCount() - writesBefore);
+        assertTrue(groupCommit.getBatchCount() - batchesBefore < 34);
+    }
+
+    @Test
+    public void testWriteIsNotQueuedPastItsDeadline() {
+        GroupCommitProductService groupCommit = assertInstanceOf(GroupCommitProductService.class, productService);
+        long writesBefore = groupCommit.getWriteCount();
+        Deadline.bind(Deadline.after(Duration.ZERO));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> productService.create(product("Too late")));
+        } finally {
+            Deadline.clear();
+        }
+        assertEquals(writesBefore, groupCommit.getWriteCount());
+    }
+}
@@ -0,0 +1,151 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productstore.service.exception.DataValidationException;
+import com.productstore.service.exception.ServiceOverloadedException;
+import com.productstore.service.model.Product;
+
+import jakarta.validation.Validation;
+
+public class ProductImportServiceTest {
+
+    private ProductService productService;
+    private List<Product> persisted;
+    private ProductImportService importService;
+
+    @BeforeEach
+    public void setUp() {
+        productService = mock(ProductService.class);
+        persisted = Collections.synchronizedList(new ArrayList<>());
+        when(productService.createAll(anyList())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+        importService = new ProductImportService(productService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), 10, 25, 3, 2, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importService.shutdown();
+    }
+
+    private InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testImportCsvInBatches() throws Exception {
+        StringBuilder csv = new StringBuilder("name,description,price,available,category\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("Hammer ").append(i).append(",\"Steel, 16oz\",12.50,true,TOOLS\n");
+        }
+
+        ImportSummary summary = importService.importProducts(body(csv.toString()), ProductImportService.Format.CSV);
+
+        assertEquals(100, summary.getRowsRead());
+        assertEquals(100, summary.getRowsImported());
+        assertEquals(0, summary.getRowsRejected());
+        assertEquals(100, persisted.size());
+        assertEquals("Steel, 16oz", persisted.get(0).getDescription());
+        assertEquals(Product.Category.TOOLS, persisted.get(0).getCategory());
+        verify(productService, atMost(10)).createAll(anyList());
+    }
+
+    @Test
+    public void testRejectedRowsAreReportedByLine() throws Exception {
+        String csv = "name,description,price,category\n"
+                + "Apple,Fruit,1.00,FOOD\n"
+                + ",Missing name,2.00,FOOD\n"
+                + "Pear,Fruit,not-a-price,FOOD\n"
+                + "Banana,Fruit,0.50,SPACESHIPS\n";
+
+        ImportSummary summary = importService.importProducts(body(csv), ProductImportService.Format.CSV);
+
+        assertEquals(4, summary.getRowsRead());
+        assertEquals(1, summary.getRowsImported());
+        assertEquals(3, summary.getRowsRejected());
+        assertEquals(List.of(3L, 4L, 5L), summary.getRejects().stream().map(ImportSummary.Reject::getLine).toList());
+        assertTrue(summary.getRejects().get(0).getMessage().contains("name"));
+    }
+
+    @Test
+    public void testImportNdjson() throws Exception {
+        String ndjson = "{\"id\":99,\"name\":\"Hat\",\"description\":\"Wool\",\"price\":20.00,\"category\":\"CLOTHS\"}\n"
+                + "{\"name\":\"Towels\",\"description\":\"Cotton\",\"price\":5.25,\"available\":false}\n";
+
+        ImportSummary summary = importService.importProducts(body(ndjson), ProductImportService.Format.NDJSON);
+
+        assertEquals(2, summary.getRowsImported());
+        assertTrue(persisted.stream().allMatch(p -> p.getId() == null));
+    }
+
+    @Test
+    public void testCsvWithoutRequiredColumnsIsRejected() {
+        assertThrows(DataValidationException.class, () ->
+                importService.importProducts(body("name,price\nHat,1.00\n"), ProductImportService.Format.CSV));
+        verify(productService, never()).createAll(anyList());
+    }
+
+    @Test
+    public void testWriterFailureAbortsImport() {
+        when(productService.createAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        StringBuilder csv = new StringBuilder("name,description,price\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Pots,Kitchen,3.00\n");
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                importService.importProducts(body(csv.toString()), ProductImportService.Format.CSV));
+        assertEquals("database down", e.getMessage());
+    }
+
+    @Test
+    public void testImportsBeyondTheLimitAreRejected() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.createAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        CompletableFuture<ImportSummary> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return importService.importProducts(body("name,description,price\nHat,Wool,1.00\n"),
+                        ProductImportService.Format.CSV);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        assertThrows(ServiceOverloadedException.class, () ->
+                importService.importProducts(body("name,description,price\nCap,Wool,1.00\n"),
+                        ProductImportService.Format.CSV));
+
+        release.countDown();
+        assertEquals(1, first.get(10, TimeUnit.SECONDS).getRowsImported());
+        assertEquals(1, importService.importProducts(body("name,description,price\nCap,Wool,1.00\n"),
+                ProductImportService.Format.CSV).getRowsImported());
+    }
+}
@@ -0,0 +1,173 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productstore.service.cache.InvalidationTransport;
+import com.productstore.service.cache.LocalInvalidationTransport;
+import com.productstore.service.event.ProductChangedEvent;
+import com.productstore.service.model.Product;
+
+public class ProductListCacheTest {
+
+    private ProductListCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ProductListCache(true, 16, 3, Duration.ofMinutes(1), (InvalidationTransport) null);
+        loads = new AtomicInteger();
+    }
+
+    private Product product(long id, Product.Category category, boolean available) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Description");
+        product.setPrice(BigDecimal.ONE);
+        product.setCategory(category);
+        product.setAvailable(available);
+        return product;
+    }
+
+    private Supplier<List<Product>> loader(Product... products) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(products);
+        };
+    }
+
+    @Test
+    public void testRepeatedQueryIsServedFromCache() {
+        Product apple = product(1, Product.Category.FOOD, true);
+
+        cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+        List<Product> cached = cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of(apple.getId()), cached.stream().map(Product::getId).toList());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testCachedRowsAreDetachedFromLoadedEntities() {
+        Product apple = product(1, Product.Category.FOOD, true);
+
+        List<Product> loaded = cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+        // As if the loading session changed its managed entity after the query
+        apple.setName("Renamed in the loading session");
+        List<Product> cached = cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+
+        assertNotSame(apple, loaded.get(0));
+        assertSame(loaded.get(0), cached.get(0));
+        assertEquals("Product 1", cached.get(0).getName());
+    }
+
+    @Test
+    public void testWriteInvalidatesOnlyAffectedCategories() {
+        Product apple = product(1, Product.Category.FOOD, true);
+        Product hammer = product(2, Product.Category.TOOLS, false);
+        cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+        cache.get(ProductListCache.Filter.category(Product.Category.TOOLS), loader(hammer));
+
+        Product updated = new Product(hammer);
+        updated.setDescription("Heavier");
+        cache.onProductChanged(ProductChangedEvent.updated(hammer, updated));
+
+        cache.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+        assertEquals(2, loads.get());
+        cache.get(ProductListCache.Filter.category(Product.Category.TOOLS), loader(updated));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testCategoryChangeInvalidatesOldAndNewCategory() {
+        Product towel = product(1, Product.Category.HOUSEWARES, true);
+        cache.get(ProductListCache.Filter.category(Product.Category.HOUSEWARES), loader(towel));
+        cache.get(ProductListCache.Filter.category(Product.Category.CLOTHS), loader());
+        cache.get(ProductListCache.Filter.availability(false), loader());
+
+        Product moved = new Product(towel);
+        moved.setCategory(Product.Category.CLOTHS);
+        cache.onProductChanged(ProductChangedEvent.updated(towel, moved));
+
+        cache.get(ProductListCache.Filter.category(Product.Category.HOUSEWARES), loader());
+        cache.get(ProductListCache.Filter.category(Product.Category.CLOTHS), loader(moved));
+        cache.get(ProductListCache.Filter.availability(false), loader());
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void testUnfilteredQueriesFollowEveryWrite() {
+        Product apple = product(1, Product.Category.FOOD, true);
+        cache.get(ProductListCache.Filter.all(), loader(apple));
+
+        cache.onProductChanged(ProductChangedEvent.deleted(apple));
+        List<Product> products = cache.get(ProductListCache.Filter.all(), loader());
+
+        assertEquals(2, loads.get());
+        assertTrue(products.isEmpty());
+    }
+
+    @Test
+    public void testLargeResultsAreNotCached() {
+        Supplier<List<Product>> large = loader(
+                product(1, Product.Category.FOOD, true), product(2, Product.Category.FOOD, true),
+                product(3, Product.Category.FOOD, true), product(4, Product.Category.FOOD, true));
+
+        cache.get(ProductListCache.Filter.all(), large);
+        cache.get(ProductListCache.Filter.all(), large);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testAllByIdIsServedOnlyWhileCurrent() {
+        Product apple = product(1, Product.Category.FOOD, true);
+        Product hammer = product(2, Product.Category.TOOLS, false);
+
+        assertNull(cache.getAllById());
+        cache.get(ProductListCache.Filter.all(), loader(apple, hammer));
+        assertEquals("Product 2", cache.getAllById().get(2L).getName());
+        assertNull(cache.getAllById().get(3L));
+
+        cache.onProductChanged(ProductChangedEvent.deleted(hammer));
+        assertNull(cache.getAllById());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws Exception {
+        cache = new ProductListCache(true, 16, 3, Duration.ofMillis(20), (InvalidationTransport) null);
+        Product apple = product(1, Product.Category.FOOD, true);
+
+        cache.get(ProductListCache.Filter.all(), loader(apple));
+        Thread.sleep(50);
+        cache.get(ProductListCache.Filter.all(), loader(apple));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testWriteOnAnotherNodeInvalidatesEntries() {
+        LocalInvalidationTransport transport = new LocalInvalidationTransport();
+        ProductListCache local = new ProductListCache(true, 16, 3, Duration.ofMinutes(1), transport);
+        ProductListCache remote = new ProductListCache(true, 16, 3, Duration.ofMinutes(1), transport);
+        Product apple = product(1, Product.Category.FOOD, true);
+        Product hammer = product(2, Product.Category.TOOLS, true);
+        local.get(ProductListCache.Filter.category(Product.Category.FOOD), loader(apple));
+        local.get(ProductListCache.Filter.all(), loader(apple, hammer));
+
+        remote.onProductChanged(ProductChangedEvent.updated(hammer, hammer));
+
+        assertNull(local.peek(ProductListCache.Filter.category(Product.Category.FOOD)));
+        assertNull(local.getAllById());
+    }
+}
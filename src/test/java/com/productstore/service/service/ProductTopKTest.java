@@ -0,0 +1,89 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+
+@SpringBootTest
+public class ProductTopKTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductListCache listCache;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Product product = new Product();
+            product.setName("Shirt " + i);
+            product.setDescription("Top-K test");
+            // Repeating prices, so ties have to be broken by id
+            product.setPrice(BigDecimal.valueOf(1000 + (i * 37) % 50, 2));
+            product.setAvailable(i % 4 != 0);
+            product.setCategory(i % 2 == 0 ? Product.Category.CLOTHS : Product.Category.FOOD);
+            products.add(product);
+        }
+        productService.createAll(products);
+    }
+
+    @Test
+    public void testCheapestAvailableInCategory() {
+        ProductQuery query = new ProductQuery(null, Product.Category.CLOTHS, true,
+                Sort.by(Sort.Direction.ASC, "price"), 20);
+
+        List<Product> fromDatabase = productService.findTop(query);
+        long missesBefore = listCache.getMissCount();
+        productService.findByCategory(Product.Category.CLOTHS);
+        assertEquals(missesBefore + 1, listCache.getMissCount());
+        List<Product> fromCache = productService.findTop(query);
+
+        List<Product> expected = productRepository.findAll().stream()
+                .filter(query::matches)
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .limit(20)
+                .toList();
+        assertEquals(ids(expected), ids(fromDatabase));
+        assertEquals(ids(expected), ids(fromCache));
+    }
+
+    @Test
+    public void testNewestFirst() {
+        ProductQuery query = new ProductQuery(null, null, null, Sort.by(Sort.Direction.DESC, "id"), 5);
+
+        List<Long> newest = ids(productService.findTop(query));
+        productService.findAll();
+        assertEquals(newest, ids(productService.findTop(query)));
+        assertEquals(5, newest.size());
+        assertTrue(newest.get(0) > newest.get(4));
+    }
+
+    @Test
+    public void testOnlyExactOrdersUseTheCache() {
+        assertTrue(ProductServiceImpl.sortableInMemory(ProductServiceImpl.tieBroken(Sort.by("price"))));
+        assertFalse(ProductServiceImpl.sortableInMemory(ProductServiceImpl.tieBroken(Sort.by("name"))));
+        assertFalse(ProductServiceImpl.sortableInMemory(Sort.by(Sort.Direction.DESC, "updatedAt")));
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
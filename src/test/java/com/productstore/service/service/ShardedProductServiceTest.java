@@ -0,0 +1,194 @@
+package com.productstore.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productstore.service.ProductServiceApplication;
+import com.productstore.service.exception.ProductNotFoundException;
+import com.productstore.service.inventory.StockLedger;
+import com.productstore.service.model.Product;
+import com.productstore.service.shard.ShardRebalancer;
+import com.productstore.service.shard.ShardRouter;
+import com.productstore.service.shard.ShardStats;
+import com.productstore.service.sync.ChangeFeed;
+
+@SpringBootTest(properties = {
+        "product.sharding.enabled=true",
+        // A linguistic collation, under which names do not sort by code point
+        "product.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;COLLATION=ENGLISH,"
+                + "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;COLLATION=ENGLISH,"
+                + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;COLLATION=ENGLISH",
+        "product.sharding.username=sa",
+        "product.sharding.id-block-size=50"
+})
+public class ShardedProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private List<Product> created;
+
+    @BeforeEach
+    public void setUp() {
+        for (Product product : productService.findAll()) {
+            productService.delete(product.getId());
+        }
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            products.add(newProduct("Sharded " + i, BigDecimal.valueOf(500 + (i * 13) % 40, 2),
+                    i % 3 == 0 ? Product.Category.TOOLS : Product.Category.FOOD));
+        }
+        created = productService.createAll(products);
+    }
+
+    @Test
+    public void testProductsAreStoredOnTheirShard() {
+        assertEquals(60, created.size());
+        assertEquals("Sharded 7", created.get(7).getName());
+        Set<Long> ids = new HashSet<>();
+        for (Product product : created) {
+            assertTrue(ids.add(product.getId()));
+            assertEquals(1, count(router.shardFor(product.getId()), product.getId()));
+        }
+        // Every shard got a share
+        assertTrue(rebalancer.stats().stream().allMatch(s -> s.getProducts() > 0));
+        assertEquals(60, rebalancer.stats().stream().mapToLong(ShardStats::getProducts).sum());
+
+        Product single = productService.create(newProduct("Sharded single", BigDecimal.TEN, Product.Category.FOOD));
+        assertEquals(1, count(router.shardFor(single.getId()), single.getId()));
+    }
+
+    @Test
+    public void testSingleProductCallsAreRouted() {
+        Product product = created.get(11);
+        assertEquals(product.getName(), productService.findById(product.getId()).getName());
+
+        productService.update(product.getId(), newProduct("Sharded renamed", BigDecimal.ONE, Product.Category.TOOLS));
+        assertEquals("Sharded renamed", productService.findById(product.getId()).getName());
+
+        productService.delete(product.getId());
+        assertThrows(ProductNotFoundException.class, () -> productService.findById(product.getId()));
+        assertEquals(0, count(router.shardFor(product.getId()), product.getId()));
+
+        ProductLookup lookup = productService.findAllByIds(List.of(created.get(3).getId(), product.getId(),
+                created.get(40).getId()));
+        assertEquals(List.of(created.get(3).getId(), created.get(40).getId()),
+                lookup.getProducts().stream().map(Product::getId).toList());
+        assertEquals(List.of(product.getId()), lookup.getMissingIds());
+    }
+
+    @Test
+    public void testFindersMergeAllShards() {
+        List<Product> tools = productService.findByCategory(Product.Category.TOOLS);
+        assertEquals(20, tools.size());
+        List<Long> toolIds = tools.stream().map(Product::getId).toList();
+        assertEquals(toolIds.stream().sorted().toList(), toolIds);
+        assertEquals(60, productService.findAll().size());
+
+        ProductQuery query = new ProductQuery(null, Product.Category.FOOD, null,
+                Sort.by(Sort.Direction.DESC, "price"), 7);
+        List<Product> expected = created.stream()
+                .filter(query::matches)
+                .sorted(Comparator.comparing(Product::getPrice).reversed().thenComparing(Product::getId))
+                .limit(7)
+                .toList();
+        List<Product> top = productService.findTop(query);
+        assertEquals(expected.stream().map(Product::getId).toList(), top.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    public void testNameSortsMergeInTheDatabaseCollation() {
+        List<Product> named = new ArrayList<>();
+        for (String name : List.of("Éclair", "delta", "Banana", "cherry", "apple", "Zebra", "échelle")) {
+            named.add(newProduct(name, new BigDecimal("1.00"), Product.Category.HOUSEWARES));
+        }
+        productService.createAll(named);
+
+        ProductQuery query = new ProductQuery(null, Product.Category.HOUSEWARES, null, Sort.by("name"), 5);
+        // By code point the capitals would come first and the accented names last
+        assertEquals(List.of("apple", "Banana", "cherry", "delta", "échelle"),
+                productService.findTop(query).stream().map(Product::getName).toList());
+    }
+
+    @Test
+    public void testRebalanceMovesMisplacedProducts() {
+        Product product = created.get(5);
+        String owner = router.shardFor(product.getId());
+        String other = router.getShards().stream().filter(s -> !s.equals(owner)).findFirst().orElseThrow();
+        // As if the product had been stored before its owner shard was added
+        JdbcTemplate from = new JdbcTemplate(router.dataSource(owner));
+        Map<String, Object> row = from.queryForMap("select * from products where id = ?", product.getId());
+        from.update("delete from products where id = ?", product.getId());
+        new JdbcTemplate(router.dataSource(other)).update(
+                "insert into products (id, name, description, price_cents, available, category, stock) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                row.get("ID"), row.get("NAME"), row.get("DESCRIPTION"), row.get("PRICE_CENTS"), row.get("AVAILABLE"),
+                row.get("CATEGORY"), row.get("STOCK"));
+
+        assertEquals(1, rebalancer.rebalance());
+        assertEquals(1, count(owner, product.getId()));
+        assertEquals(0, count(other, product.getId()));
+        assertEquals(0, rebalancer.rebalance());
+    }
+
+    @Test
+    public void testSingleDatabaseFeaturesAreLeftOutOrRefused() {
+        assertTrue(context.getBeansOfType(StockLedger.class).isEmpty());
+        assertTrue(context.getBeansOfType(ChangeFeed.class).isEmpty());
+        // Each shard numbers the writes it stores
+        for (String shard : router.getShards()) {
+            assertTrue(new JdbcTemplate(router.dataSource(shard))
+                    .queryForObject("select last_seq from change_counter", Long.class) > 0);
+        }
+
+        SpringApplicationBuilder withOutbox = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("product.sharding.enabled=true",
+                        "product.sharding.urls=jdbc:h2:mem:refused0;DB_CLOSE_DELAY=-1",
+                        "product.outbox.enabled=true");
+        Throwable failure = NestedExceptionUtils.getRootCause(assertThrows(Exception.class, withOutbox::run));
+        assertInstanceOf(IllegalStateException.class, failure);
+        assertTrue(failure.getMessage().contains("product.outbox.enabled"));
+    }
+
+    private long count(String shard, Long id) {
+        return new JdbcTemplate(router.dataSource(shard))
+                .queryForObject("select count(*) from products where id = ?", Long.class, id);
+    }
+
+    private static Product newProduct(String name, BigDecimal price, Product.Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Sharding test");
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+}
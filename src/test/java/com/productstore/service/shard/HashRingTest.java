@@ -0,0 +1,53 @@
+package com.productstore.service.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class HashRingTest {
+
+    private static final int IDS = 100_000;
+
+    @Test
+    public void testIdsAreSpreadEvenly() {
+        HashRing ring = HashRing.of(List.of("shard0", "shard1", "shard2", "shard3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long id = 1; id <= IDS; id++) {
+            counts.merge(ring.shardFor(id), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - IDS / 4) < IDS / 4 * 0.2, "Unbalanced shard: " + counts);
+        }
+        // Every node builds the same ring from the same names
+        HashRing again = HashRing.of(List.of("shard0", "shard1", "shard2", "shard3"), 128);
+        for (long id = 1; id <= 1000; id++) {
+            assertEquals(ring.shardFor(id), again.shardFor(id));
+        }
+    }
+
+    @Test
+    public void testAddingShardOnlyMovesIdsToIt() {
+        HashRing before = HashRing.of(List.of("shard0", "shard1", "shard2", "shard3"), 128);
+        HashRing after = HashRing.of(List.of("shard0", "shard1", "shard2", "shard3", "shard4"), 128);
+        int moved = 0;
+        for (long id = 1; id <= IDS; id++) {
+            String owner = after.shardFor(id);
+            if (!owner.equals(before.shardFor(id))) {
+                assertEquals("shard4", owner);
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - IDS / 5) < IDS / 5 * 0.2, "Moved " + moved);
+    }
+
+    @Test
+    public void testRejectsDuplicateShards() {
+        assertThrows(IllegalArgumentException.class, () -> HashRing.of(List.of("a", "a"), 16));
+        assertThrows(IllegalArgumentException.class, () -> HashRing.of(List.of(), 16));
+    }
+}
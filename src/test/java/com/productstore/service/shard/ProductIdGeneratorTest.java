@@ -0,0 +1,60 @@
+package com.productstore.service.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productstore.service.model.Product;
+import com.productstore.service.repository.ProductRepository;
+import com.productstore.service.service.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+public class ProductIdGeneratorTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testUnshardedIdsComeFromTheIdentityColumn() {
+        // Without an allocator in the settings the database assigns the id during the insert
+        assertTrue(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(Product.class).getGenerator().generatedOnExecution());
+
+        Product first = productService.create(newProduct("Identity first"));
+        // A row inserted without an id takes the next identity value, and JPA continues after it
+        jdbcTemplate.update("insert into products (name, description, price_cents, available, category, stock) "
+                + "values ('Identity plain', 'Inserted by SQL', 100, true, ?, 0)", Product.Category.FOOD.ordinal());
+        Long plain = jdbcTemplate.queryForObject("select id from products where name = 'Identity plain'", Long.class);
+        // No id is reserved outside the sharded service, and none is needed
+        Product saved = productRepository.save(newProduct("Identity saved"));
+
+        assertEquals(first.getId() + 1, plain);
+        assertEquals(plain + 1, saved.getId());
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Id generator test");
+        product.setPrice(new BigDecimal("1.00"));
+        product.setCategory(Product.Category.FOOD);
+        return product;
+    }
+}
@@ -0,0 +1,204 @@
+package com.productstore.service.sync;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productstore.service.exception.ChangeTokenExpiredException;
+import com.productstore.service.model.Product;
+import com.productstore.service.service.ProductService;
+
+@SpringBootTest(properties = {
+        "product.changes.tombstone-retention=PT0S",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.productstore.service.sync.ChangeFeedTest$PausingInspector"
+})
+@AutoConfigureMockMvc
+public class ChangeFeedTest {
+
+    // Stops a thread that armed it at its second product insert until released
+    public static class PausingInspector implements StatementInspector {
+
+        private static final ThreadLocal<int[]> INSERTS = new ThreadLocal<>();
+        private static final CountDownLatch paused = new CountDownLatch(1);
+        private static final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String inspect(String sql) {
+            int[] inserts = INSERTS.get();
+            if (inserts != null && sql.startsWith("insert into products") && ++inserts[0] == 2) {
+                paused.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testReturnsOnlyChangesSinceToken() throws Exception {
+        Product kept = productService.create(newProduct("Synced chair"));
+        Product removed = productService.create(newProduct("Synced table"));
+        long token = drain(changeFeed.getPurgedThrough());
+
+        Product untouched = productService.create(newProduct("Synced lamp"));
+        productService.update(kept.getId(), newProduct("Synced armchair"));
+        productService.delete(removed.getId());
+
+        ProductChanges changes = changeFeed.changesSince(token, 100);
+        assertEquals(List.of(untouched.getId(), kept.getId()),
+                changes.getProducts().stream().map(Product::getId).toList());
+        assertEquals("Synced armchair", changes.getProducts().get(1).getName());
+        assertEquals(List.of(removed.getId()), changes.getDeletedIds());
+        assertFalse(changes.isHasMore());
+
+        // Pages of one change each cover the same changes in the same order
+        ProductChanges first = changeFeed.changesSince(token, 1);
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(untouched.getId()), first.getProducts().stream().map(Product::getId).toList());
+        ProductChanges second = changeFeed.changesSince(first.getToken(), 1);
+        ProductChanges third = changeFeed.changesSince(second.getToken(), 1);
+        assertEquals(kept.getId(), second.getProducts().get(0).getId());
+        assertEquals(List.of(removed.getId()), third.getDeletedIds());
+        assertTrue(changeFeed.changesSince(third.getToken(), 1).getProducts().isEmpty());
+
+        assertTrue(changeFeed.changesSince(changes.getToken(), 100).getProducts().isEmpty());
+    }
+
+    @Test
+    public void testUncommittedWriteHoldsBackToken() throws Exception {
+        long token = drain(changeFeed.getPurgedThrough());
+        CountDownLatch allocated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Product> slow = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Product product = productService.create(newProduct("Slow writer"));
+                    allocated.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return product;
+                }));
+        assertTrue(allocated.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Product> fast = CompletableFuture.supplyAsync(
+                () -> productService.create(newProduct("Fast writer")));
+
+        // The fast write waits for the slow one to commit, and the feed shows neither meanwhile
+        Thread.sleep(200);
+        assertFalse(fast.isDone());
+        ProductChanges during = changeFeed.changesSince(token, 100);
+        assertTrue(during.getProducts().isEmpty());
+        assertEquals(token, during.getToken());
+
+        release.countDown();
+        Product slowProduct = slow.get(10, TimeUnit.SECONDS);
+        Product fastProduct = fast.get(10, TimeUnit.SECONDS);
+        assertTrue(slowProduct.getChangeSeq() < fastProduct.getChangeSeq());
+        ProductChanges after = changeFeed.changesSince(token, 100);
+        assertEquals(List.of(slowProduct.getId(), fastProduct.getId()),
+                after.getProducts().stream().map(Product::getId).toList());
+        assertEquals(changeSequence.watermark(), after.getToken());
+    }
+
+    @Test
+    public void testUpdateFinishesWhileAnImportIsRunning() throws Exception {
+        Product existing = productService.create(newProduct("Import neighbour"));
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(newProduct("Imported " + i));
+        }
+        CompletableFuture<List<Product>> importing = CompletableFuture.supplyAsync(() -> {
+            PausingInspector.INSERTS.set(new int[1]);
+            try {
+                return productService.createAll(batch);
+            } finally {
+                PausingInspector.INSERTS.remove();
+            }
+        });
+        assertTrue(PausingInspector.paused.await(10, TimeUnit.SECONDS));
+
+        // The import is halfway through its inserts; a single update does not wait for it
+        Product updated = CompletableFuture.supplyAsync(
+                () -> productService.update(existing.getId(), newProduct("Import neighbour renamed")))
+                .get(5, TimeUnit.SECONDS);
+        assertFalse(importing.isDone());
+        PausingInspector.release.countDown();
+
+        List<Product> imported = importing.get(10, TimeUnit.SECONDS);
+        assertEquals(20, imported.size());
+        assertTrue(imported.get(0).getChangeSeq() > updated.getChangeSeq());
+        assertEquals(imported.get(0).getChangeSeq() + 19, imported.get(19).getChangeSeq());
+    }
+
+    @Test
+    public void testTokenOlderThanPurgedTombstonesIsRefused() throws Exception {
+        long token = drain(changeFeed.getPurgedThrough());
+        Product product = productService.create(newProduct("Purged stool"));
+        productService.delete(product.getId());
+        Thread.sleep(5);
+
+        changeFeed.purgeTombstones();
+        assertTrue(changeFeed.getPurgedThrough() > token);
+        assertThrows(ChangeTokenExpiredException.class, () -> changeFeed.changesSince(token, 100));
+        mockMvc.perform(get("/products/changes").param("since", Long.toString(token)))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/products/changes").param("since", Long.toString(changeFeed.getPurgedThrough())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNumber());
+    }
+
+    // Follows the feed to its current end and returns the last token
+    private long drain(long token) {
+        ProductChanges changes;
+        do {
+            changes = changeFeed.changesSince(token, 5000);
+            token = changes.getToken();
+        } while (changes.isHasMore());
+        return token;
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Change feed test");
+        product.setPrice(new BigDecimal("49.00"));
+        product.setCategory(Product.Category.HOUSEWARES);
+        return product;
+    }
+}